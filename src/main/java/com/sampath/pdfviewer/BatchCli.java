@@ -0,0 +1,317 @@
+package com.sampath.pdfviewer;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless command line over the viewer's rendering, text and search code,
+ * for build servers. It never touches JavaFX, so no display is needed.
+ *
+ * Pages are processed by -Dcleanview.workers threads (or --workers), each
+ * with its own copy of the document. Results go to stdout or --out, and a
+ * one-line JSON timing summary goes to stderr. The exit code is 0 on
+ * success, 1 if the file or any page failed and 2 for bad arguments.
+ */
+public final class BatchCli {
+
+    private static final List<String> COMMANDS = Arrays.asList("render", "text", "search", "thumbs");
+    private static final List<String> OPTIONS = Arrays.asList("pages", "dpi", "width", "format", "color", "out",
+            "workers");
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: java -jar CleanView.jar <command> <file.pdf> [options]",
+            "  render <file.pdf>          pages to images: [--dpi 150] [--format png|jpeg|tiff]",
+            "                             [--color color|grayscale|bw] [--out dir]",
+            "  thumbs <file.pdf>          pages to small images: [--width 160] [--format ...] [--out dir]",
+            "  text <file.pdf>            page text, pages separated by form feeds: [--out file.txt]",
+            "  search <file.pdf> <query>  one line per hit: page, x, y, width, height (points from",
+            "                             the top-left corner) and the matched text, tab-separated",
+            "Every command takes --pages 1-3,5 and --workers n.",
+            "A JSON timing summary is printed to stderr.");
+
+    private BatchCli() {
+    }
+
+    public static boolean isCommand(String arg) {
+        return COMMANDS.contains(arg);
+    }
+
+    public static String usage() {
+        return USAGE;
+    }
+
+    /** Runs a command line and returns the process exit code. */
+    public static int run(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        try {
+            Options options = Options.parse(args);
+            String command = options.positional(0, "command");
+            File file = new File(options.positional(1, "PDF file"));
+            if (!file.isFile())
+                throw new IllegalArgumentException("No such file: " + file);
+            if (options.named.containsKey("workers")) {
+                System.setProperty("cleanview.workers", String.valueOf(Integer.parseInt(options.named.get("workers"))));
+            }
+
+            int pageCount;
+            try (PDDocument doc = DocumentLoader.load(file)) {
+                pageCount = doc.getNumberOfPages();
+            }
+            List<Integer> pages = options.named.containsKey("pages")
+                    ? PageRanges.parse(options.named.get("pages"), pageCount)
+                    : PageRanges.all(pageCount);
+            if (pages.isEmpty())
+                throw new IllegalArgumentException("No pages selected");
+
+            long start = System.nanoTime();
+            Summary summary = new Summary(command, file, pages.size());
+            switch (command) {
+            case "render":
+                render(options, file, pages, pageCount, false, summary);
+                break;
+            case "thumbs":
+                render(options, file, pages, pageCount, true, summary);
+                break;
+            case "text":
+                text(options, file, pages, summary);
+                break;
+            default:
+                search(options, file, pages, summary);
+                break;
+            }
+            summary.millis = (System.nanoTime() - start) / 1_000_000;
+            System.err.println(summary.toJson());
+            return summary.failed > 0 ? 1 : 0;
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            return 1;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+    }
+
+    // Both image commands go through the export pipeline: parallel render, separate encoders, bounded memory
+    private static void render(Options options, File file, List<Integer> pages, int pageCount, boolean thumbs,
+            Summary summary) throws IOException, InterruptedException {
+        BatchExporter.Format format = parseFormat(options.get("format", "png"));
+        ColorMode colorMode = parseColorMode(options.get("color", "color"));
+        float dpi = Float.parseFloat(options.get("dpi", "150"));
+        int width = Integer.parseInt(options.get("width", "160"));
+        if (dpi <= 0 || width <= 0)
+            throw new IllegalArgumentException("DPI and width must be positive");
+        File folder = new File(options.get("out", "."));
+        if (!folder.isDirectory() && !folder.mkdirs())
+            throw new IOException("Cannot create folder " + folder);
+
+        String baseName = file.getName().replaceFirst("(?i)\\.pdf$", "") + (thumbs ? "_thumb" : "");
+        String number = "%0" + String.valueOf(pageCount).length() + "d";
+        BatchExporter exporter = new BatchExporter(file, pages, format, dpi, colorMode, pageIndex -> new File(folder,
+                baseName + "_" + String.format(number, pageIndex + 1) + "." + format.getExtension()));
+        if (thumbs) {
+            exporter.setWidth(width);
+        }
+        summary.workers = Math.min(ParallelTextExtractor.defaultWorkers(), pages.size());
+
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        exporter.start(new BatchExporter.Listener() {
+            @Override
+            public void pageExported(int count, int total, double pagesPerSecond) {
+                done.accumulateAndGet(count, Math::max);
+            }
+
+            @Override
+            public void finished(boolean completed, int failedPages) {
+                // Pages never reached (e.g. the file could not be opened) count as failed too
+                failed.set(completed ? failedPages : pages.size() - done.get() + failedPages);
+                finished.countDown();
+            }
+        });
+        finished.await();
+        summary.failed = failed.get();
+    }
+
+    private static void text(Options options, File file, List<Integer> pages, Summary summary)
+            throws IOException, InterruptedException {
+        long[] characters = { 0 };
+        PrintWriter out = output(options);
+        try {
+            extract(file, pages, false, summary, page -> {
+                out.print(page.getText());
+                out.print('\f');
+                characters[0] += page.getText().length();
+            });
+        } finally {
+            close(options, out);
+        }
+        summary.extra = ",\"characters\":" + characters[0];
+    }
+
+    private static void search(Options options, File file, List<Integer> pages, Summary summary)
+            throws IOException, InterruptedException {
+        SearchQuery query = SearchQuery.parse(options.positional(2, "search query"));
+        if (query.isEmpty())
+            throw new IllegalArgumentException("Empty search query");
+        int[] hits = { 0 };
+        PrintWriter out = output(options);
+        try {
+            extract(file, pages, true, summary, page -> query.scan(page.getText(), (term, start, end) -> {
+                List<HighlightBox> boxes = new ArrayList<>();
+                page.addBoxes(start, end, term, hits[0]++, boxes);
+                String match = page.getText().substring(start, end).replaceAll("\\s+", " ");
+                for (HighlightBox box : boxes) {
+                    out.printf(Locale.ROOT, "%d\t%.2f\t%.2f\t%.2f\t%.2f\t%s%n", page.getPageIndex() + 1,
+                            box.x * page.getPageWidth(), box.y * page.getPageHeight(),
+                            box.width * page.getPageWidth(), box.height * page.getPageHeight(), match);
+                }
+            }));
+        } finally {
+            close(options, out);
+        }
+        summary.extra = ",\"hits\":" + hits[0];
+    }
+
+    // Extracts the smallest range covering the selection in parallel; pages arrive in page order
+    private static void extract(File file, List<Integer> pages, boolean glyphs, Summary summary,
+            ParallelTextExtractor.PageSink sink) throws IOException, InterruptedException {
+        Set<Integer> wanted = new HashSet<>(pages);
+        summary.pages = wanted.size();
+        summary.workers = ParallelTextExtractor.defaultWorkers();
+        ParallelTextExtractor extractor = new ParallelTextExtractor(file, summary.workers);
+        extractor.setCollectGlyphs(glyphs);
+        extractor.extract(Collections.min(pages), Collections.max(pages), page -> {
+            if (wanted.contains(page.getPageIndex())) {
+                sink.accept(page);
+            }
+        });
+    }
+
+    // --out file, or stdout
+    private static PrintWriter output(Options options) throws IOException {
+        return new PrintWriter(new BufferedWriter(new OutputStreamWriter(options.named.containsKey("out")
+                ? new FileOutputStream(options.named.get("out")) : System.out, StandardCharsets.UTF_8)));
+    }
+
+    private static void close(Options options, PrintWriter out) throws IOException {
+        if (options.named.containsKey("out")) {
+            out.close();
+        } else {
+            out.flush(); // stdout stays open
+        }
+        if (out.checkError())
+            throw new IOException("Could not write the output");
+    }
+
+    private static BatchExporter.Format parseFormat(String name) {
+        for (BatchExporter.Format format : BatchExporter.Format.values()) {
+            if (format.name().equalsIgnoreCase(name) || format.getExtension().equalsIgnoreCase(name))
+                return format;
+        }
+        throw new IllegalArgumentException("Unknown format: " + name);
+    }
+
+    private static ColorMode parseColorMode(String name) {
+        if (name.equalsIgnoreCase("bw"))
+            return ColorMode.MONOCHROME;
+        for (ColorMode mode : ColorMode.values()) {
+            if (mode.name().equalsIgnoreCase(name) || mode.getLabel().equalsIgnoreCase(name))
+                return mode;
+        }
+        throw new IllegalArgumentException("Unknown color mode: " + name);
+    }
+
+    private static final class Options {
+        final List<String> positional = new ArrayList<>();
+        final Map<String, String> named = new HashMap<>();
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                if (!args[i].startsWith("--")) {
+                    options.positional.add(args[i]);
+                    continue;
+                }
+                String name = args[i].substring(2);
+                if (!OPTIONS.contains(name))
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+                if (i + 1 >= args.length)
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                options.named.put(name, args[++i]);
+            }
+            return options;
+        }
+
+        String positional(int index, String what) {
+            if (index >= positional.size())
+                throw new IllegalArgumentException("Missing " + what);
+            return positional.get(index);
+        }
+
+        String get(String name, String fallback) {
+            return named.getOrDefault(name, fallback);
+        }
+    }
+
+    /** The machine-readable line printed to stderr when a command ends. */
+    private static final class Summary {
+        final String command;
+        final File file;
+        int pages;
+        int workers;
+        int failed;
+        long millis;
+        String extra = "";
+
+        Summary(String command, File file, int pages) {
+            this.command = command;
+            this.file = file;
+            this.pages = pages;
+        }
+
+        String toJson() {
+            double pagesPerSecond = millis > 0 ? pages * 1000.0 / millis : 0;
+            return String.format(Locale.ROOT,
+                    "{\"command\":\"%s\",\"file\":%s,\"pages\":%d,\"failed\":%d,\"workers\":%d,\"millis\":%d,"
+                            + "\"pagesPerSecond\":%.2f%s}",
+                    command, quote(file.getPath()), pages, failed, workers, millis, pagesPerSecond, extra);
+        }
+
+        private static String quote(String value) {
+            StringBuilder json = new StringBuilder("\"");
+            for (char c : value.toCharArray()) {
+                if (c == '"' || c == '\\') {
+                    json.append('\\').append(c);
+                } else if (c < 0x20) {
+                    json.append(String.format("\\u%04x", (int) c));
+                } else {
+                    json.append(c);
+                }
+            }
+            return json.append('"').toString();
+        }
+    }
+}
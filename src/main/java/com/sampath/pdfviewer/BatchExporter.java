@@ -0,0 +1,193 @@
+package com.sampath.pdfviewer;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Exports many pages to image files using every core.
+ *
+ * Render workers each open their own copy of the document and hand
+ * finished bitmaps to a separate encoder pool, so encoding overlaps with
+ * rendering. At most -Dcleanview.export.inflight bitmaps (default: twice
+ * the worker count) exist at any time, which keeps memory flat however
+ * many pages are exported. Grayscale pages are written as 8-bit images
+ * and black & white ones as 1-bit (8-bit for JPEG, which has no 1-bit
+ * form), which keeps the files small.
+ */
+public class BatchExporter {
+
+    public enum Format {
+        PNG("png"), JPEG("jpg"), TIFF("tif");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /** Progress callbacks; called from worker threads. */
+    public interface Listener {
+        void pageExported(int done, int total, double pagesPerSecond);
+
+        void finished(boolean completed, int failed);
+    }
+
+    private final File file;
+    private final List<Integer> pages;
+    private final Format format;
+    private final float dpi;
+    private final ColorMode colorMode;
+    private final IntFunction<File> target;
+    private final int workers;
+    private final Semaphore inFlight;
+    private int width = 0;
+    private volatile boolean cancelled = false;
+
+    /** {@code target} maps a page index to the file it is written to. */
+    public BatchExporter(File file, List<Integer> pages, Format format, float dpi, ColorMode colorMode,
+            IntFunction<File> target) {
+        this.file = file;
+        this.pages = pages;
+        this.format = format;
+        this.dpi = dpi;
+        this.colorMode = colorMode;
+        this.target = target;
+        this.workers = Math.min(ParallelTextExtractor.defaultWorkers(), Math.max(1, pages.size()));
+        this.inFlight = new Semaphore(Math.max(1, Integer.getInteger("cleanview.export.inflight", workers * 2)));
+    }
+
+    /** Renders every page this many pixels wide instead of at the fixed DPI, e.g. for thumbnails. */
+    public void setWidth(int width) {
+        this.width = width;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public void start(Listener listener) {
+        Thread thread = new Thread(() -> run(listener), "cleanview-export");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run(Listener listener) {
+        ExecutorService renderPool = Executors.newFixedThreadPool(workers, daemon("cleanview-export-render"));
+        ExecutorService encodePool = Executors.newFixedThreadPool(workers, daemon("cleanview-export-encode"));
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        long start = System.nanoTime();
+
+        for (int w = 0; w < workers; w++) {
+            renderPool.execute(() -> {
+                try (PDDocument doc = DocumentLoader.load(file)) {
+                    PDFRenderer renderer = new PDFRenderer(doc);
+                    int i;
+                    while (!cancelled && (i = next.getAndIncrement()) < pages.size()) {
+                        int pageIndex = pages.get(i);
+                        inFlight.acquire(); // released once the bitmap is written
+                        BufferedImage image;
+                        try {
+                            float pageDpi = width > 0 ? width * 72f / displayedWidth(doc.getPage(pageIndex)) : dpi;
+                            BufferedImage page = renderer.renderImageWithDPI(pageIndex, pageDpi,
+                                    colorMode.getImageType());
+                            image = colorMode == ColorMode.MONOCHROME ? threshold(page, format != Format.JPEG) : page;
+                        } catch (Exception ex) {
+                            inFlight.release();
+                            ex.printStackTrace();
+                            failed.incrementAndGet();
+                            report(listener, done.incrementAndGet(), start);
+                            continue;
+                        }
+                        encodePool.execute(() -> {
+                            try {
+                                if (!cancelled && !ImageIO.write(image, format.name(), target.apply(pageIndex))) {
+                                    throw new IOException("No " + format + " writer available");
+                                }
+                            } catch (Exception ex) {
+                                ex.printStackTrace();
+                                failed.incrementAndGet();
+                            } finally {
+                                inFlight.release();
+                                report(listener, done.incrementAndGet(), start);
+                            }
+                        });
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (IOException ex) {
+                    ex.printStackTrace();
+                    cancelled = true; // the document cannot be opened, no worker will get further
+                }
+            });
+        }
+
+        try {
+            renderPool.shutdown();
+            renderPool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+            encodePool.shutdown();
+            encodePool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        listener.finished(!cancelled && done.get() == pages.size(), failed.get());
+    }
+
+    private void report(Listener listener, int done, long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        listener.pageExported(done, pages.size(), seconds > 0 ? done / seconds : 0);
+    }
+
+    // Black & white from a gray page: a 1-bit copy, or the gray page itself set to pure black and white
+    static BufferedImage threshold(BufferedImage gray, boolean packed) {
+        int width = gray.getWidth();
+        int height = gray.getHeight();
+        BufferedImage result = packed ? new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY) : gray;
+        WritableRaster source = gray.getRaster();
+        WritableRaster target = result.getRaster();
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            source.getSamples(0, y, width, 1, 0, row);
+            for (int x = 0; x < width; x++) {
+                row[x] = row[x] < 128 ? 0 : packed ? 1 : 255;
+            }
+            target.setSamples(0, y, width, 1, 0, row);
+        }
+        return result;
+    }
+
+    // Page width in points as it is shown, i.e. with the page's rotation applied
+    private static float displayedWidth(PDPage page) {
+        int rotation = page.getRotation();
+        return rotation == 90 || rotation == 270 ? page.getCropBox().getHeight() : page.getCropBox().getWidth();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
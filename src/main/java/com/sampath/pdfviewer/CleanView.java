@@ -2,9 +2,11 @@ package com.sampath.pdfviewer;
 
 import javax.imageio.ImageIO;
 import java.awt.print.*;
+import javax.print.PrintService;
 import java.awt.Graphics;
 
 import javafx.animation.FadeTransition;
+import javafx.animation.PauseTransition;
 import javafx.util.Duration;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
@@ -14,43 +16,49 @@ import javafx.scene.layout.Region;
 import javafx.scene.layout.Priority;
 import javafx.application.Application;
 import javafx.application.Platform;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.concurrent.Task;
-import javafx.embed.swing.SwingFXUtils;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.SnapshotParameters;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.*;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.input.ZoomEvent;
 import javafx.scene.image.WritableImage;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.SVGPath;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 import javafx.geometry.Orientation;
 import javafx.stage.Stage;
+import javafx.stage.Window;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.rendering.PDFRenderer;
-import org.apache.pdfbox.text.PDFTextStripper;
-import org.apache.pdfbox.text.TextPosition;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.BufferedReader;
 import java.io.IOException;
 
-import java.awt.geom.Rectangle2D;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
 
 import javafx.geometry.Bounds;
+import javafx.geometry.Dimension2D;
 import javafx.geometry.Insets;
 import javafx.scene.text.Font;
 
@@ -72,20 +80,72 @@ public class CleanView extends Application {
     private static String fileToOpen = null;
     private ScrollPane scrollPane;
     private float renderDPI = 150f; // Controls zoom
+    // Zoom steps stretch what is on screen; the page is rendered again once they stop for this long
+    private final PauseTransition zoomSettle = new PauseTransition(
+            Duration.millis(Integer.getInteger("cleanview.zoom.settle.ms", 250)));
+    private enum FitMode { NONE, WIDTH, PAGE }
+    private FitMode fitMode = FitMode.NONE; // fit modes recompute renderDPI from the viewer size
+    private float pixelScale = 1f; // bitmap pixels per layout pixel: the screen's output scale while fitting
+    private ToggleButton fitPageToggle;
     private PDDocument document;
     private PDFRenderer renderer;
     private int currentPage = 0;
     private Canvas highlightCanvas = new Canvas();
-    private List<Rectangle2D.Float> highlights = new ArrayList<>();
+    private List<HighlightBox> highlights = new ArrayList<>();
     private String currentKeyword = "";
+    private SearchQuery currentQuery;
+    private int currentMatch = -1; // find-all match outlined on the current page, by its order on the page
+    private boolean revealMatch = false; // scroll the current match into view once its page is up
+    // One semi-transparent colour per search term, starting with the classic yellow
+    private static final Color[] HIGHLIGHT_COLORS = {
+            Color.color(1, 1, 0, 0.4), Color.color(0, 1, 1, 0.35), Color.color(1, 0.4, 0.7, 0.35),
+            Color.color(0.4, 1, 0.4, 0.35), Color.color(1, 0.6, 0, 0.35), Color.color(0.6, 0.5, 1, 0.35) };
     private File currentFilePath;
     private VBox leftSidebar;
-    private ListView<String> pageListView = new ListView<>();
+    private ListView<Integer> pageListView = new ListView<>();
+    private PageLabels pageLabels = PageLabels.none();
     private Label statusLabel = new Label("Ready");
+    private final RenderScheduler renderScheduler = new RenderScheduler("cleanview-render");
+    private final Object documentLock = new Object(); // PDFBox is not thread-safe
+    private int pageCount = 0;
+    private long lastRenderMillis = -1; // -1 while the requested page is still rendering
+    private final RenderCache pageCache = RenderCache.fromSystemProperties();
+    private final PixelBufferPool pixelPool = PixelBufferPool.fromSystemProperties();
+    private volatile ColorMode viewColorMode = ColorMode.COLOR; // read by the render thread
+    private volatile int documentId = 0; // unique per opened document so cached pages never leak across files
+    private final PagePrefetcher prefetcher = new PagePrefetcher(renderScheduler);
+    private static final float PREVIEW_DPI = 72f;
+    private static final String PRINT_VECTOR = "Vector (sharp, small)";
+    private static final String PRINT_RASTER = "Image (300 DPI)";
+    private static final boolean DEBUG = Boolean.getBoolean("cleanview.debug"); // timings on stdout
+    // Above this zoom a quick low-res preview is shown before the sharp page
+    private final float progressiveDPI = Float.parseFloat(System.getProperty("cleanview.progressive.dpi", "200"));
+    // From this zoom pages are rendered as viewport tiles to keep memory bounded
+    private final float tiledDPI = Float.parseFloat(System.getProperty("cleanview.tiled.dpi", "300"));
+    private TiledPageView tileView;
+    private final DiskPageCache diskCache = DiskPageCache.fromSystemProperties();
+    private volatile TextIndex textIndex;
+    private static final long INDEX_WAIT_MILLIS = 200; // searches waiting on the indexer re-check cancellation this often
+    private String memoryMode = "";
+    private ParallelTextExtractor indexExtractor;
+    private GlyphCache glyphCache = new GlyphCache();
+    private BorderPane rootPane;
+    private final SearchResultsPanel searchResults = new SearchResultsPanel();
+    private final AtomicLong findAllGeneration = new AtomicLong();
+    private String findAllKeyword = "";
+    private ThumbnailService thumbnails; // of the document on screen
+    // The tab on screen; render-thread work reads its document through this snapshot, never the fields above
+    private volatile DocumentSession activeSession;
+    private final Map<Tab, DocumentSession> sessions = new LinkedHashMap<>();
+    private int lastDocumentId = 0;
+    private ContinuousPageView continuousView;
+    private boolean continuousMode = false;
+    private Tab documentTab;
 
     @Override
     public void start(Stage primaryStage) {
         pdfImageView = new ImageView();
+        pixelPool.track(pdfImageView);
         highlightCanvas = new Canvas();
         highlightCanvas.setMouseTransparent(true);
         pdfImageView.setPreserveRatio(true);
@@ -94,9 +154,16 @@ public class CleanView extends Application {
         ToggleButton themeToggle = new ToggleButton("🌙");
 
         BorderPane root = new BorderPane();
+        rootPane = root;
         Scene scene = new Scene(root, 1920, 1080);
         scene.getStylesheets().add(getClass().getResource("/main.css").toExternalForm());
         tabPane.setTabClosingPolicy(TabPane.TabClosingPolicy.ALL_TABS);
+        tabPane.getSelectionModel().selectedItemProperty().addListener((obs, oldTab, newTab) -> {
+            DocumentSession session = sessions.get(newTab);
+            if (session != null && session != activeSession) {
+                activateSession(session);
+            }
+        });
 
         themeToggle.setSelected(false);
         themeToggle.setStyle("-fx-background-radius: 20;");
@@ -113,23 +180,6 @@ public class CleanView extends Application {
             }
         });
 
-        if (fileToOpen != null) {
-            File pdfFile = new File(fileToOpen);
-            if (pdfFile.exists() && pdfFile.getName().endsWith(".pdf")) {
-                try {
-                    if (document != null) {
-                        document.close();
-                    }
-                    document = PDDocument.load(pdfFile);
-                    renderer = new PDFRenderer(document);
-                    currentPage = 0;
-                    showPage(currentPage);
-                } catch (Exception ex) {
-                    ex.printStackTrace();
-                }
-            }
-        }
-
         ImageView logo = new ImageView(new Image(getClass().getResourceAsStream("/icon.png")));
         logo.setFitHeight(24);
         logo.setFitWidth(24);
@@ -199,30 +249,60 @@ public class CleanView extends Application {
 
         searchField.setPrefWidth(100);
 
+        // Find-all streams every matching page into a side panel
+        Button findAllButton = new Button("All");
+        findAllButton.setOnAction(e -> findAll(searchField.getText().trim()));
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> cancelFindAll());
+        searchResults.setOnMatchSelected((page, match) -> {
+            boolean shown = page == currentPage && lastRenderMillis >= 0 && currentKeyword.equals(findAllKeyword);
+            currentKeyword = findAllKeyword;
+            currentMatch = match;
+            revealMatch = true;
+            if (shown && !continuousMode) {
+                drawHighlights(); // another match on the page already up
+                revealCurrentMatch();
+            } else {
+                jumpToPage(page);
+            }
+        });
+
         for (ImageView iv : Arrays.asList(openIcon, prevIcon, nextIcon, zoomInIcon, zoomOutIcon, printIcon, exportIcon,
                 fitWidthIcon, searchIcon, goIcon)) {
             iv.getStyleClass().add("toolbar-icon");
             iv.setPickOnBounds(true);
         }
 
+        ToggleButton continuousToggle = new ToggleButton("⇕");
+        continuousToggle.setStyle("-fx-background-radius: 20;");
+        continuousToggle.setOnAction(e -> setContinuousMode(continuousToggle.isSelected()));
+
+        fitPageToggle = new ToggleButton("⤢");
+        fitPageToggle.setStyle("-fx-background-radius: 20;");
+        fitPageToggle.setOnAction(e -> setFitMode(fitPageToggle.isSelected() ? FitMode.PAGE : FitMode.NONE));
+
+        ComboBox<ColorMode> colorModeBox = new ComboBox<>();
+        colorModeBox.getItems().addAll(ColorMode.values());
+        colorModeBox.setValue(viewColorMode);
+        colorModeBox.setOnAction(e -> setViewColorMode(colorModeBox.getValue()));
+
         iconToolbar.getChildren().addAll(
                 openIcon, printIcon, exportIcon,
                 new Separator(Orientation.VERTICAL),
-                prevIcon, nextIcon, new Region(), fitWidthIcon,
-                zoomInIcon, zoomOutIcon,
+                prevIcon, nextIcon, new Region(), fitWidthIcon, fitPageToggle,
+                continuousToggle, colorModeBox, zoomInIcon, zoomOutIcon,
                 pageInput, goIcon,
-                searchField, searchIcon
+                searchField, searchIcon, findAllButton
         // spacer only
         );
         HBox.setHgrow(iconToolbar.getChildren().get(iconToolbar.getChildren().size() - 1), Priority.ALWAYS);
 
         openIcon.setOnMouseClicked(e -> openPdf(primaryStage));
-        prevIcon.setOnMouseClicked(e -> showPage(currentPage - 1));
-        nextIcon.setOnMouseClicked(e -> showPage(currentPage + 1));
+        prevIcon.setOnMouseClicked(e -> stepPage(-1));
+        nextIcon.setOnMouseClicked(e -> stepPage(1));
         zoomInIcon.setOnMouseClicked(e -> zoom(25));
         zoomOutIcon.setOnMouseClicked(e -> zoom(-25));
         printIcon.setOnMouseClicked(e -> showPrintDialog(primaryStage));
-        exportIcon.setOnMouseClicked(e -> exportCurrentPageAsImage(primaryStage));
+        exportIcon.setOnMouseClicked(e -> showExportDialog(primaryStage));
         searchIcon.setOnMouseClicked(e -> {
             if (document != null) {
                 String keyword = searchField.getText().trim();
@@ -239,8 +319,12 @@ public class CleanView extends Application {
         Tooltip.install(zoomOutIcon, new Tooltip("Zoom Out"));
         Tooltip.install(printIcon, new Tooltip("Print Current Page"));
         Tooltip.install(exportIcon, new Tooltip("Export Current Page as Image"));
-        Tooltip.install(fitWidthIcon, new Tooltip("Fit Image to Width"));
+        Tooltip.install(fitWidthIcon, new Tooltip("Fit Page to Width"));
+        fitPageToggle.setTooltip(new Tooltip("Fit Whole Page"));
+        continuousToggle.setTooltip(new Tooltip("Continuous Scroll"));
+        colorModeBox.setTooltip(new Tooltip("Page Colors"));
         Tooltip.install(searchIcon, new Tooltip("Search Document"));
+        findAllButton.setTooltip(new Tooltip("Find All Matches"));
         Tooltip.install(goIcon, new Tooltip("Go to Page"));
         Tooltip.install(pageInput, new Tooltip("Enter Page Number"));
         Tooltip.install(searchField, new Tooltip("Enter Search Keyword"));
@@ -248,22 +332,15 @@ public class CleanView extends Application {
         searchField.getStyleClass().add("search-box");
         pageInput.getStyleClass().add("page-input");
 
-        fitWidthIcon.setOnMouseClicked(e -> {
-            if (pdfImageView.getImage() == null)
-                return;
-
-            double viewerWidth = scrollPane.getViewportBounds().getWidth();
-            fitImageToWidth(viewerWidth > 0 ? viewerWidth : 800);
-
-        });
+        fitWidthIcon.setOnMouseClicked(e -> setFitMode(FitMode.WIDTH));
 
         goIcon.setOnMouseClicked(e -> {
             if (document == null)
                 return;
             try {
                 int pageNum = Integer.parseInt(pageInput.getText()) - 1;
-                if (pageNum >= 0 && pageNum < document.getNumberOfPages()) {
-                    showPage(pageNum);
+                if (pageNum >= 0 && pageNum < pageCount) {
+                    jumpToPage(pageNum);
                 } else {
                     System.out.println("Invalid page number");
                 }
@@ -272,9 +349,23 @@ public class CleanView extends Application {
             }
         });
 
-        // Stack the image and highlight layer
+        // The cache holds one reference to each page; its pixels are reused once no view holds one either
+        pageCache.setOnEvicted(pixelPool::release);
+
+        // Stack the image, high-zoom tiles and highlight layer
+        tileView = new TiledPageView(renderScheduler, new TiledPageView.TileSource() {
+            @Override
+            public Image renderTile(int pageIndex, float dpi, int x, int y, int width, int height) throws IOException {
+                return CleanView.this.renderTile(pageIndex, dpi, x, y, width, height);
+            }
+
+            @Override
+            public void recycle(Image tile) {
+                pixelPool.release(tile);
+            }
+        });
         StackPane layeredView = new StackPane();
-        layeredView.getChildren().addAll(pdfImageView, highlightCanvas);
+        layeredView.getChildren().addAll(pdfImageView, tileView, highlightCanvas);
         highlightCanvas.setMouseTransparent(true);
 
         // Wrap with scroll pane
@@ -283,15 +374,61 @@ public class CleanView extends Application {
         scrollPane.setFitToWidth(true);
         scrollPane.setFitToHeight(true);
 
-        // 🔽 scroll listener for page navigation
-        scrollPane.setOnScroll(event -> {
-            if (event.isControlDown())
-                return;
+        // Load more tiles as the user pans a tiled page
+        scrollPane.hvalueProperty().addListener((obs, oldVal, newVal) -> refreshTiles());
+        scrollPane.vvalueProperty().addListener((obs, oldVal, newVal) -> refreshTiles());
+        scrollPane.viewportBoundsProperty().addListener((obs, oldVal, newVal) -> refreshTiles());
+        tileView.boundsInParentProperty().addListener((obs, oldVal, newVal) -> refreshTiles());
 
-            if (event.getDeltaY() < 0) {
-                showPage(currentPage + 1);
-            } else if (event.getDeltaY() > 0) {
-                showPage(currentPage - 1);
+        // Continuous scroll alternative to the single-page scroll pane
+        continuousView = new ContinuousPageView(renderScheduler, new ContinuousPageView.PageImageSource() {
+            @Override
+            public Image cached(int pageIndex, float dpi) {
+                return acquireCached(new RenderCache.Key(documentId, pageIndex, dpi, viewColorMode));
+            }
+
+            @Override
+            public Image render(int pageIndex, float dpi) throws Exception {
+                return renderToCache(pageIndex, dpi);
+            }
+
+            @Override
+            public void track(ImageView view) {
+                pixelPool.track(view);
+            }
+
+            @Override
+            public void release(Image image) {
+                pixelPool.release(image);
+            }
+        });
+        continuousView.setOnFirstVisiblePageChanged(page -> {
+            currentPage = page;
+            pageListView.getSelectionModel().select(page);
+            pageListView.scrollTo(page);
+            updateStatusBar();
+        });
+
+        // Ctrl+wheel and trackpad pinch zoom instead of scrolling, in both views
+        zoomSettle.setOnFinished(e -> applyZoom());
+        for (Control view : Arrays.asList(scrollPane, continuousView)) {
+            view.addEventFilter(ScrollEvent.SCROLL, event -> {
+                if (event.isControlDown() && event.getDeltaY() != 0) {
+                    zoomBy(Math.pow(1.1, event.getDeltaY() / 40.0)); // 10% per wheel notch
+                    event.consume();
+                }
+            });
+            view.addEventFilter(ZoomEvent.ZOOM, event -> {
+                zoomBy(event.getZoomFactor());
+                event.consume();
+            });
+            // Fit modes follow the window; refit() only stretches, so a drag-resize renders once at the end
+            view.widthProperty().addListener((obs, oldVal, newVal) -> refit());
+            view.heightProperty().addListener((obs, oldVal, newVal) -> refit());
+        }
+        primaryStage.outputScaleXProperty().addListener((obs, oldVal, newVal) -> {
+            if (fitMode != FitMode.NONE) {
+                setPixelScale(outputScale());
             }
         });
 
@@ -329,8 +466,76 @@ public class CleanView extends Application {
         pageListView.setStyle("-fx-background-color: #F2F2F2; -fx-font-family: 'Segoe UI';");
 
         pageListView.getSelectionModel().selectedIndexProperty().addListener((obs, oldVal, newVal) -> {
-            if (newVal.intValue() >= 0 && document != null) {
-                showPage(newVal.intValue());
+            if (newVal.intValue() >= 0 && document != null && newVal.intValue() != currentPage) {
+                jumpToPage(newVal.intValue());
+            }
+        });
+
+        // Installed once; opening a document only swaps the items. Each cell builds its
+        // nodes a single time and just re-points them when it is reused for another page.
+        pageListView.setCellFactory(list -> new ListCell<Integer>() {
+            // Page this cell is showing; thumbnails for pages it scrolled away from are skipped
+            private volatile int wantedIndex = -1;
+            private final ImageView thumb = new ImageView();
+            private final Region placeholder = new Region();
+            private final Label label = new Label();
+            private final VBox container = new VBox(placeholder, label);
+
+            {
+                thumb.setFitWidth(ThumbnailService.THUMBNAIL_WIDTH);
+                thumb.setPreserveRatio(true);
+                pixelPool.track(thumb); // holds its thumbnail while the service may evict it
+
+                // Grey placeholder until the background render lands
+                placeholder.setPrefSize(ThumbnailService.THUMBNAIL_WIDTH, ThumbnailService.THUMBNAIL_WIDTH * 1.3);
+                placeholder.setStyle("-fx-background-color: #DDDDDD;");
+
+                label.setStyle("-fx-font-size: 10px; -fx-text-fill: #333; -fx-font-family: 'Segoe UI';");
+
+                container.setAlignment(Pos.CENTER);
+                container.setSpacing(4);
+                setText(null);
+            }
+
+            @Override
+            protected void updateItem(Integer item, boolean empty) {
+                super.updateItem(item, empty);
+
+                if (empty || item == null || renderer == null || item >= pageCount) {
+                    wantedIndex = -1;
+                    thumb.setImage(null);
+                    setGraphic(null);
+                    return;
+                }
+
+                final int index = item;
+                wantedIndex = index;
+                String printed = pageLabels.labelFor(index);
+                String number = String.valueOf(index + 1);
+                label.setText(printed.equals(number) ? "Page " + number : printed + " (" + number + ")");
+                setGraphic(container);
+
+                ThumbnailService.Thumbnail cached = thumbnails.get(index);
+                if (cached == null || !showThumbnail(cached)) {
+                    thumb.setImage(null);
+                    container.getChildren().set(0, placeholder);
+                    thumbnails.request(index, () -> wantedIndex == index, ready -> {
+                        if (wantedIndex == index) {
+                            showThumbnail(ready);
+                        }
+                    });
+                }
+            }
+
+            // False if the thumbnail was evicted, and its pixels reused, since it was looked up
+            private boolean showThumbnail(ThumbnailService.Thumbnail thumbnail) {
+                Image image = thumbnail.getImage();
+                if (!pixelPool.retain(image))
+                    return false;
+                thumb.setImage(image); // the view takes its own reference
+                pixelPool.release(image);
+                container.getChildren().set(0, thumb);
+                return true;
             }
         });
 
@@ -345,10 +550,10 @@ public class CleanView extends Application {
         scrollPane.setOnScroll(event -> {
             if (event.getDeltaY() < 0) {
                 // Scroll down → Next Page
-                showPage(currentPage + 1);
+                stepPage(1);
             } else if (event.getDeltaY() > 0) {
                 // Scroll up → Previous Page
-                showPage(currentPage - 1);
+                stepPage(-1);
             }
         });
 
@@ -369,6 +574,13 @@ public class CleanView extends Application {
         primaryStage.setTitle("CleanView");
         primaryStage.setScene(scene);
         primaryStage.show();
+
+        if (fileToOpen != null) {
+            File pdfFile = new File(fileToOpen);
+            if (pdfFile.exists() && pdfFile.getName().endsWith(".pdf")) {
+                openDocument(pdfFile);
+            }
+        }
     }
 
     private ImageView loadIcon(String svgFileName, double size) {
@@ -420,103 +632,223 @@ public class CleanView extends Application {
         File selectedFile = fileChooser.showOpenDialog(stage);
 
         if (selectedFile != null) {
-            currentFilePath = selectedFile;
-            try {
-                if (document != null) {
-                    document.close();
-                }
-                document = PDDocument.load(selectedFile);
-                renderer = new PDFRenderer(document);
-                pageListView.getItems().clear();
-                int totalPages = document.getNumberOfPages();
-                for (int i = 1; i <= totalPages; i++) {
-                    pageListView.getItems().add("Page " + i);
-                }
+            openDocument(selectedFile);
+        }
+    }
 
-                ObservableList<String> pageLabels = FXCollections.observableArrayList();
-                for (int i = 0; i < document.getNumberOfPages(); i++) {
-                    pageLabels.add("Page " + (i + 1));
+    // Opens in stages: parse the trailer off the FX thread, put page 1 on screen, and only
+    // then build what grows with the page count (sidebar, index). Each stage is timed.
+    private void openDocument(File pdfFile) {
+        final long openStart = System.nanoTime();
+        final DocumentSession session = new DocumentSession(pdfFile);
+        statusLabel.setText("Opening " + pdfFile.getName() + "...");
+
+        // The disk cache key hashes file content, so it runs alongside parsing instead of before it.
+        // Page 1 usually starts rendering before the hash is known, so its saved preview is looked up here.
+        Thread fingerprint = new Thread(() -> {
+            String key = fingerprintOrNull(pdfFile);
+            session.documentKey = key;
+            ColorMode colorMode = viewColorMode;
+            int pageIndex = session.currentPage;
+            BufferedImage saved = diskCache.read(key, previewName(pageIndex, colorMode));
+            Platform.runLater(() -> {
+                logOpenStage("fingerprint", openStart);
+                if (saved != null) {
+                    showDiskPreview(session, pageIndex, colorMode, saved);
                 }
-                pageListView.setItems(pageLabels);
+            });
+        }, "cleanview-fingerprint");
+        fingerprint.setDaemon(true);
+        fingerprint.start();
 
-                pageListView.setCellFactory(list -> new ListCell<String>() {
-                    @Override
-                    protected void updateItem(String item, boolean empty) {
-                        super.updateItem(item, empty);
-
-                        if (empty || item == null || renderer == null || getIndex() < 0
-                                || getIndex() >= document.getNumberOfPages()) {
-                            setGraphic(null);
-                            setText(null);
-                        } else {
-                            try {
-                                BufferedImage img = renderer.renderImageWithDPI(getIndex(), 72); // More visible DPI
-                                WritableImage fxImg = SwingFXUtils.toFXImage(img, null);
-
-                                ImageView thumb = new ImageView(fxImg);
-                                thumb.setFitWidth(80);
-                                thumb.setPreserveRatio(true);
-
-                                Label label = new Label(item);
-                                label.setStyle(
-                                        "-fx-font-size: 10px; -fx-text-fill: #333; -fx-font-family: 'Segoe UI';");
-
-                                VBox container = new VBox(thumb, label);
-                                container.setAlignment(Pos.CENTER);
-                                container.setSpacing(4);
-                                setGraphic(container);
-                                setText(null);
-                            } catch (Exception e) {
-                                e.printStackTrace();
-                                setText(item + " (error)");
-                            }
-                        }
-                    }
-                });
+        Task<PDDocument> parseTask = new Task<PDDocument>() {
+            @Override
+            protected PDDocument call() throws Exception {
+                return DocumentLoader.load(pdfFile);
+            }
+        };
+        parseTask.setOnSucceeded(evt -> {
+            logOpenStage("parse", openStart);
+            PDDocument loaded = parseTask.getValue();
+            // No other thread can see the session until its tab is activated
+            session.document = loaded;
+            session.renderer = new PDFRenderer(loaded);
+            session.documentId = ++lastDocumentId;
+            session.pageCount = loaded.getNumberOfPages();
+            session.pageLabels = PageLabels.of(loaded);
+            session.memoryMode = DocumentLoader.memoryMode(pdfFile);
+            session.textIndex = new TextIndex(session.pageCount); // filled once page 1 is up
+            session.renderDPI = renderDPI;
+            session.thumbnails = new ThumbnailService(renderScheduler,
+                    (page, width) -> renderThumbnail(session, page, width));
+            session.thumbnails.setOnEvicted(pixelPool::release);
+
+            // Everything proportional to the page count waits until page 1 is up
+            session.afterFirstPage = () -> {
+                logOpenStage("first page", openStart);
+                session.sidebarReady = true;
+                pageListView.setItems(new PageIndexList(pageCount));
+                pageListView.getSelectionModel().select(currentPage);
+                logOpenStage("sidebar", openStart);
+                startIndexing(pdfFile);
+            };
+            addDocumentTab(session); // selecting the new tab puts page 1 on screen
+            if (continuousMode || session.pageCount == 0) {
+                runAfterFirstPage(); // the continuous view fills in on its own
+            }
+        });
+        parseTask.setOnFailed(evt -> {
+            parseTask.getException().printStackTrace();
+            updateStatusBar();
+        });
 
-                pageListView.getSelectionModel().selectedIndexProperty().addListener((obs, oldVal, newVal) -> {
-                    if (newVal != null && newVal.intValue() != currentPage) {
-                        showPage(newVal.intValue());
-                    }
-                });
+        Thread thread = new Thread(parseTask, "cleanview-open");
+        thread.setDaemon(true);
+        thread.start();
+    }
 
-                currentPage = 0;
-
-                showPage(currentPage);
-
-                // Update the tab title
-                String filename = selectedFile.getName();
-                Label title = new Label(filename);
-                Label closeIcon = new Label("✖");
-                closeIcon.setStyle(
-                        "-fx-text-fill: red; -fx-font-size: 14px; -fx-cursor: hand; -fx-font-family: 'Segoe UI';");
-                HBox tabHeader = new HBox(title, closeIcon);
-                tabHeader.setAlignment(Pos.CENTER_LEFT);
-                tabHeader.setSpacing(5);
-
-                Tab pdfTab = new Tab();
-                pdfTab.setContent(scrollPane);
-                pdfTab.setClosable(false); // optional for now
-                pdfTab.setGraphic(tabHeader);
-
-                closeIcon.setOnMouseClicked(e -> {
-                    try {
-                        if (document != null) {
-                            document.close();
-                            document = null; // reset reference
-                        }
-                    } catch (IOException ex) {
-                        ex.printStackTrace();
-                    }
-                    tabPane.getTabs().setAll(createNoFileTab());
-                    updateStatusBar(); // 🔥 Reset status to "Ready"
-                });
+    // Tab switches swap the viewer's fields over to the selected document. The render thread
+    // only follows activeSession, so publishing it last hands the tab over without the document lock.
+    private void activateSession(DocumentSession next) {
+        DocumentSession previous = activeSession;
+        prefetcher.stop();
+        tileView.clear();
+        if (previous != null) {
+            previous.currentPage = currentPage;
+            previous.renderDPI = renderDPI;
+            previous.textIndex = textIndex;
+            previous.indexExtractor = indexExtractor;
+            previous.pause();
+            previous.tab.setContent(new StackPane());
+        }
+        document = next.document;
+        renderer = next.renderer;
+        documentId = next.documentId;
+        pageCount = next.pageCount;
+        currentPage = next.currentPage;
+        renderDPI = next.renderDPI;
+        pageLabels = next.pageLabels;
+        memoryMode = next.memoryMode;
+        textIndex = next.textIndex;
+        indexExtractor = next.indexExtractor;
+        thumbnails = next.thumbnails;
+        glyphCache = next.glyphCache;
+        currentFilePath = next.file;
+        activeSession = next;
+        next.resume();
+        pageCache.setActiveDocument(documentId);
+
+        documentTab = next.tab;
+        documentTab.setContent(continuousMode ? continuousView : scrollPane);
+        pageListView.setItems(new PageIndexList(next.sidebarReady ? pageCount : 0));
+        cancelFindAll();
+        rootPane.setRight(null);
+        if (continuousMode) {
+            loadContinuousLayout();
+        }
+        jumpToPage(currentPage);
+        refit();
+    }
 
-                tabPane.getTabs().setAll(pdfTab); // Replace current tab
+    // Stands in for a page that is still rendering with the preview an earlier session saved
+    private void showDiskPreview(DocumentSession session, int pageIndex, ColorMode colorMode, BufferedImage saved) {
+        if (session != activeSession || continuousMode || currentPage != pageIndex || lastRenderMillis >= 0
+                || viewColorMode != colorMode)
+            return; // another page, or the sharp one is already up
+        PixelBufferPool.PooledImage preview;
+        try {
+            preview = pixelPool.copyOf(saved);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            return;
+        }
+        cacheShared(new RenderCache.Key(session.documentId, pageIndex, PREVIEW_DPI, colorMode), preview);
+        double stretch = renderDPI / PREVIEW_DPI;
+        displayImage(preview, preview.getWidth() * stretch, preview.getHeight() * stretch, new ArrayList<>());
+        pixelPool.release(preview);
+    }
 
-            } catch (Exception ex) {
-                ex.printStackTrace();
+    // Called once the first sharp page of a newly opened document is on screen
+    private void runAfterFirstPage() {
+        DocumentSession session = activeSession;
+        Runnable pending = session == null ? null : session.afterFirstPage;
+        if (pending != null) {
+            session.afterFirstPage = null;
+            pending.run();
+        }
+    }
+
+    private static void logOpenStage(String stage, long openStart) {
+        if (DEBUG)
+            System.out.println("Open: " + stage + " after " + (System.nanoTime() - openStart) / 1_000_000 + " ms");
+    }
+
+    private void addDocumentTab(DocumentSession session) {
+        // Update the tab title
+        String filename = session.file.getName();
+        Label title = new Label(filename);
+        Label closeIcon = new Label("✖");
+        closeIcon.setStyle(
+                "-fx-text-fill: red; -fx-font-size: 14px; -fx-cursor: hand; -fx-font-family: 'Segoe UI';");
+        HBox tabHeader = new HBox(title, closeIcon);
+        tabHeader.setAlignment(Pos.CENTER_LEFT);
+        tabHeader.setSpacing(5);
+
+        Tab pdfTab = new Tab();
+        pdfTab.setContent(new StackPane());
+        pdfTab.setClosable(false); // optional for now
+        pdfTab.setGraphic(tabHeader);
+        session.tab = pdfTab;
+        sessions.put(pdfTab, session);
+
+        closeIcon.setOnMouseClicked(e -> closeSession(session));
+
+        tabPane.getTabs().removeIf(tab -> !sessions.containsKey(tab)); // the "No File Open" placeholder
+        tabPane.getTabs().add(pdfTab);
+        tabPane.getSelectionModel().select(pdfTab);
+    }
+
+    private void closeSession(DocumentSession session) {
+        boolean wasActive = session == activeSession;
+        if (wasActive) {
+            stopIndexing();
+        } else if (session.indexExtractor != null) {
+            session.indexExtractor.cancel();
+        }
+        session.thumbnails.clear();
+        if (wasActive) {
+            activeSession = null;
+            document = null; // reset reference
+            renderer = null;
+            pageCount = 0;
+            textIndex = null;
+        }
+        // Closing waits for any render of this document to finish, so it happens on the render thread
+        renderScheduler.submit(RenderScheduler.PRIORITY_VISIBLE, () -> {
+            synchronized (documentLock) {
+                try {
+                    session.document.close();
+                } catch (IOException ex) {
+                    ex.printStackTrace();
+                }
+                session.document = null;
             }
+            pageCache.invalidateDocument(session.documentId); // after any render that was still filling it
+        });
+        sessions.remove(session.tab);
+        tabPane.getTabs().remove(session.tab); // selects a neighbouring document tab, if any
+
+        if (sessions.isEmpty()) {
+            prefetcher.stop();
+            tileView.clear();
+            continuousView.setPages(new float[0], new float[0]);
+            pageListView.setItems(new PageIndexList(0));
+            pageLabels = PageLabels.none();
+            documentTab = null;
+            cancelFindAll();
+            rootPane.setRight(null);
+            tabPane.getTabs().setAll(createNoFileTab());
+            updateStatusBar(); // 🔥 Reset status to "Ready"
         }
     }
 
@@ -535,166 +867,804 @@ public class CleanView extends Application {
         return tab;
     }
 
-    private void showPage(int pageIndex) {
-        updateStatusBar();
-        if (document == null || renderer == null)
+    // Single-page moves (wheel, next/previous) keep the prefetcher running ahead
+    private void stepPage(int delta) {
+        int target = currentPage + delta;
+        if (document == null || target < 0 || target >= pageCount)
             return;
-        if (pageIndex >= 0 && pageIndex < document.getNumberOfPages()) {
-            try {
-                BufferedImage image = renderer.renderImageWithDPI(pageIndex, renderDPI);
-                WritableImage fxImage = SwingFXUtils.toFXImage(image, null);
-                pdfImageView.setImage(fxImage);
-                pdfImageView.setFitWidth(fxImage.getWidth());
-                pdfImageView.setFitHeight(fxImage.getHeight());
+        if (continuousMode) {
+            jumpToPage(target); // the continuous view renders whatever scrolls into view
+            return;
+        }
+        showPage(target);
 
-                currentPage = pageIndex;
+        final DocumentSession session = activeSession;
+        // Full bitmaps at tiled zoom levels are exactly what we must not build, so warm previews instead
+        final float dpi = renderDPI * pixelScale >= tiledDPI ? PREVIEW_DPI : renderDPI * pixelScale;
+        final ColorMode colorMode = viewColorMode;
+        prefetcher.onStep(target, delta, pageCount, pageIndex -> prefetchPage(session, pageIndex, dpi, colorMode));
+    }
 
-                highlightCanvas.setWidth(fxImage.getWidth());
-                highlightCanvas.setHeight(fxImage.getHeight());
+    // Jumps (page input, sidebar, search) make the prefetched neighbourhood useless
+    private void jumpToPage(int pageIndex) {
+        prefetcher.stop();
+        if (continuousMode) {
+            currentPage = pageIndex;
+            continuousView.scrollTo(pageIndex);
+            pageListView.getSelectionModel().select(pageIndex);
+            updateStatusBar();
+            return;
+        }
+        showPage(pageIndex);
+    }
 
-                if (!currentKeyword.isEmpty()) {
-                    highlights = findHighlights(currentPage, currentKeyword);
-                } else {
-                    highlights.clear();
-                }
-                drawHighlights();
+    private void setContinuousMode(boolean enabled) {
+        continuousMode = enabled;
+        prefetcher.stop();
+        if (documentTab == null || document == null)
+            return;
+        if (enabled) {
+            tileView.clear();
+            documentTab.setContent(continuousView);
+            loadContinuousLayout();
+        } else {
+            documentTab.setContent(scrollPane);
+            showPage(currentPage);
+        }
+    }
 
-                // ✅ Add these lines to update the sidebar highlight
-                if (pageListView != null) {
-                    pageListView.getSelectionModel().select(currentPage);
-                    pageListView.scrollTo(currentPage);
-                }
-                if (document != null) {
-                    updateStatusBar();
-                }
-            } catch (Exception ex) {
-                ex.printStackTrace();
+    // Lays out the whole document in the continuous view from its page sizes
+    private void loadContinuousLayout() {
+        DocumentSession session = activeSession;
+        if (session == null)
+            return;
+        withPageSizes(session, () -> {
+            if (session == activeSession && continuousMode) {
+                continuousView.setPages(session.pageWidths, session.pageHeights);
+                updateContinuousDpi();
+                continuousView.scrollTo(currentPage);
             }
+        });
+    }
+
+    // Reads every page size (no rendering) once per document, then runs onReady on the FX thread
+    private void withPageSizes(DocumentSession session, Runnable onReady) {
+        if (session.pageWidths != null) {
+            onReady.run();
+            return;
         }
+        final int count = session.pageCount;
+        renderScheduler.submit(RenderScheduler.PRIORITY_VISIBLE, () -> {
+            float[] widths = new float[count];
+            float[] heights = new float[count];
+            synchronized (documentLock) {
+                if (session.document == null)
+                    return; // tab was closed meanwhile
+                int i = 0;
+                for (PDPage page : session.document.getPages()) {
+                    if (i >= count)
+                        break;
+                    Dimension2D size = pageSizePoints(page);
+                    widths[i] = (float) size.getWidth();
+                    heights[i] = (float) size.getHeight();
+                    i++;
+                }
+            }
+            Platform.runLater(() -> {
+                session.pageWidths = widths;
+                session.pageHeights = heights;
+                onReady.run();
+            });
+        });
     }
 
-    private void updateStatusBar() {
-        if (document != null) {
-            statusLabel.setText("Page " + (currentPage + 1) + " of " + document.getNumberOfPages() +
-                    " | Zoom: " + (int) renderDPI + "%");
-        } else {
-            statusLabel.setText("Ready");
+    // Continuous pages render at screen resolution while fitting, but never above the tiling threshold
+    private void updateContinuousDpi() {
+        continuousView.setDpi(renderDPI, Math.min(renderDPI * pixelScale, tiledDPI));
+    }
 
+    // Runs on the render thread at thumbnail priority
+    private ThumbnailService.Thumbnail renderThumbnail(DocumentSession session, int pageIndex, int width)
+            throws IOException {
+        String diskKey = session.documentKey;
+        ColorMode colorMode = viewColorMode;
+        String name = diskName("thumb-" + pageIndex + "-" + width, colorMode);
+        BufferedImage saved = diskCache.read(diskKey, name);
+        synchronized (documentLock) {
+            if (session.document == null)
+                return null; // tab was closed meanwhile
+            Dimension2D points = pageSizePoints(session.document.getPage(pageIndex));
+            float scale = (float) (width / points.getWidth());
+            PixelBufferPool.PooledImage image;
+            if (saved != null) {
+                image = pixelPool.copyOf(saved);
+            } else {
+                image = pixelPool.render(session.renderer, session.document, pageIndex, scale * 72f, colorMode);
+                diskCache.write(diskKey, name, opaqueCopy(image));
+            }
+            return new ThumbnailService.Thumbnail(image, scale * 72f);
         }
     }
 
-    private void fitImageToWidth(double targetWidth) {
-        if (pdfImageView.getImage() == null || document == null || renderer == null)
-            return;
+    private static BufferedImage scaleImage(BufferedImage source, float factor) {
+        int width = Math.max(1, Math.round(source.getWidth() * factor));
+        int height = Math.max(1, Math.round(source.getHeight() * factor));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(java.awt.RenderingHints.KEY_INTERPOLATION,
+                    java.awt.RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
 
+    // The disk cache writes in the background, so it gets its own copy without the alpha channel
+    private static BufferedImage opaqueCopy(PixelBufferPool.PooledImage image) {
+        return scaleImage(image.getAwtImage(), 1f);
+    }
+
+    private static String previewName(int pageIndex, ColorMode colorMode) {
+        return diskName("preview-" + pageIndex + "-" + (int) PREVIEW_DPI, colorMode);
+    }
+
+    // Colour pages keep the names older caches were written with
+    private static String diskName(String name, ColorMode colorMode) {
+        return colorMode == ColorMode.COLOR ? name : name + "-" + colorMode.name().toLowerCase();
+    }
+
+    // Content hash used as the on-disk cache key; null disables disk caching for this file
+    private String fingerprintOrNull(File pdfFile) {
+        if (!diskCache.isEnabled())
+            return null;
         try {
-            double imageRatio = pdfImageView.getImage().getHeight() / pdfImageView.getImage().getWidth();
-            double targetHeight = targetWidth * imageRatio;
+            return DiskPageCache.fingerprint(pdfFile);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            return null;
+        }
+    }
 
-            pdfImageView.setFitWidth(targetWidth);
-            pdfImageView.setFitHeight(targetHeight);
+    // Runs on the render thread; renders a whole page and keeps it in the page cache.
+    // The caller gets its own reference and must release it.
+    private Image renderToCache(int pageIndex, float dpi) throws IOException {
+        DocumentSession session = activeSession;
+        if (session == null)
+            return null;
+        synchronized (documentLock) {
+            if (session.document == null)
+                return null;
+            ColorMode colorMode = viewColorMode;
+            RenderCache.Key cacheKey = new RenderCache.Key(session.documentId, pageIndex, dpi, colorMode);
+            Image fxImage = pixelPool.render(session.renderer, session.document, pageIndex, dpi, colorMode);
+            cacheShared(cacheKey, fxImage);
+            return fxImage;
+        }
+    }
 
-            highlightCanvas.setWidth(targetWidth);
-            highlightCanvas.setHeight(targetHeight);
+    // A cached page with a reference the caller must release, or null if missing or just evicted
+    private Image acquireCached(RenderCache.Key key) {
+        Image image = pageCache.get(key);
+        return image != null && pixelPool.retain(image) ? image : null;
+    }
 
-            drawHighlights(); // Re-draw with new size
+    // Puts a page in the cache while the caller keeps using (and later releases) its own reference
+    private void cacheShared(RenderCache.Key key, Image image) {
+        pixelPool.retain(image);
+        pageCache.put(key, image);
+    }
 
+    // Runs on the render thread at prefetch priority
+    private void prefetchPage(DocumentSession session, int pageIndex, float dpi, ColorMode colorMode) {
+        RenderCache.Key cacheKey = new RenderCache.Key(session.documentId, pageIndex, dpi, colorMode);
+        try {
+            synchronized (documentLock) {
+                if (session != activeSession || session.document == null || pageCache.contains(cacheKey))
+                    return;
+                pageCache.put(cacheKey,
+                        pixelPool.render(session.renderer, session.document, pageIndex, dpi, colorMode));
+            }
         } catch (Exception ex) {
             ex.printStackTrace();
         }
     }
 
-    private List<Rectangle2D.Float> findHighlights(int pageIndex, String keyword) {
-        List<Rectangle2D.Float> boxes = new ArrayList<>();
-        try {
-            PDFTextStripper stripper = new PDFTextStripper() {
-                StringBuilder buffer = new StringBuilder();
-                List<TextPosition> currentWord = new ArrayList<>();
-
-                @Override
-                protected void processTextPosition(TextPosition text) {
-                    String c = text.getUnicode();
-                    if (c.trim().isEmpty() || c.equals(" ")) {
-                        checkWord(buffer.toString(), currentWord);
-                        buffer.setLength(0);
-                        currentWord.clear();
-                    } else {
-                        buffer.append(c);
-                        currentWord.add(text);
-                    }
+    private void showPage(int pageIndex) {
+        updateStatusBar();
+        if (document == null || renderer == null)
+            return;
+        if (pageIndex < 0 || pageIndex >= pageCount)
+            return;
+
+        // Commit to the page right away so repeated prev/next steps accumulate
+        // while the bitmap is still being rendered in the background.
+        currentPage = pageIndex;
+        lastRenderMillis = -1;
+        DocumentSession session = activeSession;
+        if (fitMode != FitMode.NONE && session != null && session.pageWidths != null) {
+            renderDPI = fitDpi(session, pageIndex); // pages of different sizes each get their own fit
+        }
+        updateStatusBar();
+        if (pageListView != null) {
+            pageListView.getSelectionModel().select(currentPage);
+            pageListView.scrollTo(currentPage);
+        }
+
+        final long ticket = renderScheduler.newTicket();
+        final float scale = pixelScale;
+        final float dpi = renderDPI * scale; // bitmaps are laid out at 1/scale of their pixel size
+        final SearchQuery query = compiledQuery(currentKeyword);
+        final DocumentSession pageSession = session;
+        final TextIndex index = textIndex;
+        final ColorMode colorMode = viewColorMode;
+        final RenderCache.Key cacheKey = new RenderCache.Key(documentId, pageIndex, dpi, colorMode);
+
+        // Very high zoom is drawn in viewport-sized tiles instead of one huge bitmap
+        final boolean tiled = dpi >= tiledDPI;
+        if (tileView != null) {
+            tileView.clear();
+        }
+
+        // Pages we have already rendered at this zoom come straight from memory
+        // Held until this request is done with it, so an eviction meanwhile cannot recycle its pixels
+        final Image cached = tiled ? null : acquireCached(cacheKey);
+        final PageText glyphs = query.isEmpty() ? null : glyphCache.get(documentId, pageIndex);
+        if (cached != null && (query.isEmpty() || glyphs != null)) {
+            // Zooming with a search active only rescales the glyph boxes we already have
+            List<HighlightBox> boxes = glyphs == null ? new ArrayList<>() : matchBoxes(glyphs, query);
+            displayPage(new RenderedPage(pageIndex, cached, null, boxes, 0));
+            pixelPool.release(cached);
+            return;
+        }
+
+        // Progressive mode: put any lower-resolution copy we already have on screen,
+        // stretched to the final size, while the sharp page renders.
+        final boolean progressive = cached == null && (tiled || dpi >= progressiveDPI);
+        boolean previewShown = false;
+        if (progressive) {
+            Map.Entry<RenderCache.Key, Image> standIn = pageCache.bestBelow(documentId, pageIndex, dpi, colorMode);
+            ThumbnailService.Thumbnail thumbnail = thumbnails.get(pageIndex);
+            if (standIn != null && pixelPool.retain(standIn.getValue())) {
+                double stretch = dpi / standIn.getKey().dpi / scale;
+                Image low = standIn.getValue();
+                displayImage(low, low.getWidth() * stretch, low.getHeight() * stretch, new ArrayList<>());
+                pixelPool.release(low);
+                previewShown = standIn.getKey().dpi >= PREVIEW_DPI;
+            } else if (thumbnail != null && pixelPool.retain(thumbnail.getImage())) {
+                // Far too coarse to stay up for long, so the regular preview still renders
+                double stretch = dpi / thumbnail.getDpi() / scale;
+                Image low = thumbnail.getImage();
+                displayImage(low, low.getWidth() * stretch, low.getHeight() * stretch, new ArrayList<>());
+                pixelPool.release(low);
+            }
+        }
+        final boolean needsPreview = progressive && !previewShown;
+        // A preview saved by an earlier session is free to show even at low zoom
+        final boolean tryDiskPreview = cached == null && !previewShown;
+
+        Task<RenderedPage> renderTask = new Task<RenderedPage>() {
+            @Override
+            protected RenderedPage call() throws Exception {
+                if (!renderScheduler.isLatest(ticket)) {
+                    pixelPool.release(cached);
+                    return null; // user already moved on, skip the work
                 }
 
-                private void checkWord(String word, List<TextPosition> positions) {
-                    if (word.toLowerCase().contains(keyword.toLowerCase()) && !positions.isEmpty()) {
-                        float dpiScale = renderDPI / 72f;
-
-                        float x = positions.get(0).getXDirAdj() * dpiScale;
-                        float y = positions.get(0).getYDirAdj() * dpiScale;
-                        float w = 0;
-                        float h = 0;
-                        for (TextPosition tp : positions) {
-                            w += tp.getWidthDirAdj() * dpiScale;
-                            h = Math.max(h, tp.getHeightDir() * dpiScale);
+                long start = System.nanoTime();
+                String diskKey = pageSession.documentKey; // read late: the fingerprint may still be running
+                Image fxImage = cached;
+                Dimension2D size;
+                List<HighlightBox> boxes;
+                synchronized (documentLock) {
+                    PDDocument pageDocument = pageSession.document;
+                    if (pageDocument == null) {
+                        pixelPool.release(cached);
+                        return null; // tab was closed meanwhile
+                    }
+                    PDFRenderer pageRenderer = pageSession.renderer;
+                    boxes = query.isEmpty() ? new ArrayList<>()
+                            : findHighlights(pageSession, index, pageIndex, query);
+                    // Size previews exactly like the final bitmap so highlights line up through the swap
+                    size = pageSizeAt(pageDocument, pageIndex, dpi);
+                    BufferedImage saved = tryDiskPreview ? diskCache.read(diskKey, previewName(pageIndex, colorMode))
+                            : null;
+                    PixelBufferPool.PooledImage low = saved == null ? null : pixelPool.copyOf(saved);
+                    if (low == null && needsPreview) {
+                        low = pixelPool.render(pageRenderer, pageDocument, pageIndex, PREVIEW_DPI, colorMode);
+                        diskCache.write(diskKey, previewName(pageIndex, colorMode), opaqueCopy(low));
+                    }
+                    if (low != null) {
+                        Image preview = low;
+                        cacheShared(new RenderCache.Key(cacheKey.documentId, pageIndex, PREVIEW_DPI, colorMode),
+                                preview);
+                        Platform.runLater(() -> {
+                            if (renderScheduler.isLatest(ticket)) {
+                                displayImage(preview, size.getWidth() / scale, size.getHeight() / scale, boxes);
+                            }
+                            pixelPool.release(preview);
+                        });
+                        if (!renderScheduler.isLatest(ticket)) {
+                            pixelPool.release(fxImage);
+                            return null;
+                        }
+                    }
+                    if (fxImage == null && !tiled) {
+                        PixelBufferPool.PooledImage image = pixelPool.render(pageRenderer, pageDocument, pageIndex, dpi,
+                                colorMode);
+                        fxImage = image;
+                        cacheShared(cacheKey, fxImage);
+                        if (tryDiskPreview && low == null) {
+                            // Save a small copy so this page appears instantly next session
+                            diskCache.write(diskKey, previewName(pageIndex, colorMode),
+                                    scaleImage(image.getAwtImage(), PREVIEW_DPI / dpi));
                         }
-                        boxes.add(new Rectangle2D.Float(x, y, w, h));
-                        // System.out.println("Matched: " + word + " at (" + x + "," + y + ")");
                     }
                 }
-            };
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                return new RenderedPage(pageIndex, fxImage, size, boxes, millis);
+            }
+        };
 
-            stripper.setStartPage(pageIndex + 1);
-            stripper.setEndPage(pageIndex + 1);
-            stripper.getText(document);
-        } catch (Exception e) {
-            e.printStackTrace();
+        renderTask.setOnSucceeded(evt -> {
+            RenderedPage page = renderTask.getValue();
+            if (page != null && renderScheduler.isLatest(ticket)) {
+                if (tiled) {
+                    showTiledPage(page, dpi);
+                } else {
+                    displayPage(page);
+                }
+            }
+            if (page != null) {
+                pixelPool.release(page.image); // the view holds its own reference now
+            }
+        });
+        renderTask.setOnFailed(evt -> {
+            pixelPool.release(cached);
+            renderTask.getException().printStackTrace();
+            runAfterFirstPage(); // a broken first page must not hold back the rest of the open
+        });
+
+        renderScheduler.submitPageRender(renderTask);
+    }
+
+    // Tiled pages keep the low-res preview underneath and fill in sharp tiles as they render
+    private void showTiledPage(RenderedPage page, float dpi) {
+        Dimension2D size = page.size;
+        double width = size.getWidth() / pixelScale;
+        double height = size.getHeight() / pixelScale;
+        pdfImageView.setFitWidth(width);
+        pdfImageView.setFitHeight(height);
+        highlightCanvas.setWidth(width);
+        highlightCanvas.setHeight(height);
+        highlights = page.highlights;
+        drawHighlights();
+        revealCurrentMatch();
+
+        tileView.show(page.pageIndex, dpi, size.getWidth(), size.getHeight(), 1.0 / pixelScale);
+        refreshTiles();
+
+        lastRenderMillis = page.renderMillis;
+        updateStatusBar();
+        runAfterFirstPage();
+    }
+
+    private void refreshTiles() {
+        if (tileView == null || !tileView.isActive())
+            return;
+        Bounds viewport = scrollPane.getViewportBounds();
+        Bounds layer = tileView.getBoundsInParent();
+        // Viewport min x/y are the negated scroll offsets of the content
+        tileView.updateViewport(-viewport.getMinX() - layer.getMinX(), -viewport.getMinY() - layer.getMinY(),
+                viewport.getWidth(), viewport.getHeight());
+    }
+
+    // Runs on the render thread for each tile the viewport needs
+    private Image renderTile(int pageIndex, float dpi, int x, int y, int width, int height) throws IOException {
+        DocumentSession session = activeSession;
+        if (session == null)
+            return null;
+        synchronized (documentLock) {
+            if (session.document == null)
+                return null;
+            return pixelPool.paint(width, height, viewColorMode, g -> {
+                g.translate(-x, -y);
+                session.renderer.renderPageToGraphics(pageIndex, g, dpi / 72f);
+            });
+        }
+    }
+
+    // Runs on the FX thread once the latest requested page has been rendered
+    private void displayPage(RenderedPage page) {
+        displayImage(page.image, page.image.getWidth() / pixelScale, page.image.getHeight() / pixelScale,
+                page.highlights);
+        revealCurrentMatch();
+        lastRenderMillis = page.renderMillis;
+        updateStatusBar();
+        runAfterFirstPage();
+    }
+
+    // Shows a bitmap at the given on-screen size with the highlight layer sized to match
+    private void displayImage(Image image, double width, double height, List<HighlightBox> boxes) {
+        pdfImageView.setImage(image);
+        pdfImageView.setFitWidth(width);
+        pdfImageView.setFitHeight(height);
+
+        highlightCanvas.setWidth(width);
+        highlightCanvas.setHeight(height);
+
+        highlights = boxes;
+        drawHighlights();
+    }
+
+    // Pixel size PDFRenderer will produce for a page at the given DPI; call with documentLock held
+    private static Dimension2D pageSizeAt(PDDocument document, int pageIndex, float dpi) {
+        Dimension2D points = pageSizePoints(document.getPage(pageIndex));
+        float scale = dpi / 72f;
+        return new Dimension2D(Math.max(Math.floor(points.getWidth() * scale), 1),
+                Math.max(Math.floor(points.getHeight() * scale), 1));
+    }
+
+    // Displayed page size in points: the crop box, turned for rotated pages
+    private static Dimension2D pageSizePoints(PDPage page) {
+        PDRectangle cropBox = page.getCropBox();
+        int rotation = page.getRotation();
+        if (rotation == 90 || rotation == 270) {
+            return new Dimension2D(cropBox.getHeight(), cropBox.getWidth());
+        }
+        return new Dimension2D(cropBox.getWidth(), cropBox.getHeight());
+    }
+
+    private static final class RenderedPage {
+        final int pageIndex;
+        final Image image; // null for tiled pages
+        final Dimension2D size;
+        final List<HighlightBox> highlights;
+        final long renderMillis;
+
+        RenderedPage(int pageIndex, Image image, Dimension2D size, List<HighlightBox> highlights,
+                long renderMillis) {
+            this.pageIndex = pageIndex;
+            this.image = image;
+            this.size = size;
+            this.highlights = highlights;
+            this.renderMillis = renderMillis;
+        }
+    }
+
+    private void updateStatusBar() {
+        if (document != null) {
+            statusLabel.setText("Page " + (currentPage + 1) + " of " + pageCount +
+                    " | Zoom: " + (int) renderDPI + "%" +
+                    " | " + memoryMode +
+                    (lastRenderMillis < 0 ? " | Rendering..." : " | Rendered in " + lastRenderMillis + " ms") +
+                    (textIndex != null && !textIndex.isComplete()
+                            ? " | Indexing " + textIndex.getIndexedPages() + "/" + pageCount
+                            : "") +
+                    " | " + pageCache.summary() +
+                    " | " + pixelPool.summary());
+        } else {
+            statusLabel.setText("Ready");
+
+        }
+    }
+
+    // Glyph boxes are extracted once per page and reused at every zoom; call with documentLock held
+    private static List<HighlightBox> findHighlights(DocumentSession session, TextIndex index, int pageIndex,
+            SearchQuery query) {
+        if (index != null && !index.mayContain(pageIndex, query))
+            return new ArrayList<>(); // the index already knows there is nothing to highlight here
+        PageText page = session.glyphCache.get(session.documentId, pageIndex);
+        if (page == null) {
+            try {
+                page = ParallelTextExtractor.extractPage(session.document, pageIndex);
+                session.glyphCache.put(session.documentId, page);
+            } catch (Exception e) {
+                e.printStackTrace();
+                return new ArrayList<>();
+            }
         }
+        return matchBoxes(page, query);
+    }
+
+    // One pass over the page text finds every term; boxes are fractions of the page size
+    private static List<HighlightBox> matchBoxes(PageText page, SearchQuery query) {
+        List<HighlightBox> boxes = new ArrayList<>();
+        int[] match = { 0 };
+        query.scan(page.getText(), (term, start, end) -> page.addBoxes(start, end, term, match[0]++, boxes));
         return boxes;
     }
 
+    // Search box text is compiled once and reused until it changes
+    private SearchQuery compiledQuery(String keyword) {
+        SearchQuery query = currentQuery;
+        if (query == null || !query.getText().equals(keyword)) {
+            query = SearchQuery.parse(keyword);
+            currentQuery = query;
+        }
+        return query;
+    }
+
     private void drawHighlights() {
-        // Search and Highlights sucks but that is ok for a initial version lets fix it
-        // later on writing this comment so that i don't forget
         GraphicsContext gc = highlightCanvas.getGraphicsContext2D();
-        gc.clearRect(0, 0, highlightCanvas.getWidth(), highlightCanvas.getHeight());
-        gc.setFill(Color.color(1, 1, 0, 0.4)); // semi-transparent yellow
+        double width = highlightCanvas.getWidth();
+        double height = highlightCanvas.getHeight();
+        gc.clearRect(0, 0, width, height);
+        gc.setStroke(Color.ORANGERED);
+        gc.setLineWidth(2);
+        for (HighlightBox box : highlights) {
+            gc.setFill(HIGHLIGHT_COLORS[box.getTerm() % HIGHLIGHT_COLORS.length]);
+            gc.fillRect(box.x * width, box.y * height, box.width * width, box.height * height);
+            if (box.getMatch() == currentMatch) {
+                gc.strokeRect(box.x * width, box.y * height, box.width * width, box.height * height);
+            }
+        }
+    }
 
-        for (Rectangle2D.Float box : highlights) {
-            gc.fillRect(box.getX(), box.getY(), box.getWidth(), box.getHeight());
+    // Scrolls the page so the match picked in the results panel is in view, once per pick
+    private void revealCurrentMatch() {
+        if (!revealMatch)
+            return;
+        revealMatch = false;
+        for (HighlightBox box : highlights) {
+            if (box.getMatch() != currentMatch)
+                continue;
+            scrollPane.layout();
+            Node content = scrollPane.getContent();
+            Bounds page = content.sceneToLocal(highlightCanvas.localToScene(highlightCanvas.getBoundsInLocal()));
+            double extra = content.getLayoutBounds().getHeight() - scrollPane.getViewportBounds().getHeight();
+            if (extra > 0) {
+                double y = page.getMinY() + (box.y + box.height / 2) * page.getHeight();
+                scrollPane.setVvalue(Math.max(0, Math.min(1, (y - scrollPane.getViewportBounds().getHeight() / 2)
+                        / extra)));
+            }
+            return;
         }
     }
 
-    private void exportCurrentPageAsImage(Stage stage) {
-        if (document == null || renderer == null)
+    private void showExportDialog(Stage stage) {
+        final DocumentSession session = activeSession;
+        if (session == null)
             return;
 
-        try {
-            BufferedImage image = renderer.renderImageWithDPI(currentPage, 300); // high-res export
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Export Pages as Images");
+        dialog.initOwner(stage);
 
+        ToggleGroup rangeGroup = new ToggleGroup();
+        RadioButton currentPageRadio = new RadioButton("Current");
+        RadioButton allPagesRadio = new RadioButton("All");
+        RadioButton customRangeRadio = new RadioButton("Custom");
+        currentPageRadio.setToggleGroup(rangeGroup);
+        allPagesRadio.setToggleGroup(rangeGroup);
+        customRangeRadio.setToggleGroup(rangeGroup);
+        currentPageRadio.setSelected(true);
+
+        TextField customRangeField = new TextField();
+        customRangeField.setPromptText("e.g. 1-3,5");
+        customRangeField.disableProperty().bind(customRangeRadio.selectedProperty().not());
+
+        ComboBox<BatchExporter.Format> formatBox = new ComboBox<>();
+        formatBox.getItems().addAll(BatchExporter.Format.values());
+        formatBox.setValue(BatchExporter.Format.PNG);
+
+        ComboBox<Integer> dpiBox = new ComboBox<>();
+        dpiBox.getItems().addAll(72, 150, 300, 600);
+        dpiBox.setValue(300); // high-res export
+
+        ComboBox<ColorMode> colorModeBox = new ComboBox<>();
+        colorModeBox.getItems().addAll(ColorMode.values());
+        colorModeBox.setValue(viewColorMode);
+
+        VBox content = new VBox(10,
+                new Label("Page Range:"), currentPageRadio, allPagesRadio,
+                new HBox(10, customRangeRadio, customRangeField),
+                new Label("Format:"), formatBox,
+                new Label("DPI:"), dpiBox,
+                new Label("Color Mode:"), colorModeBox);
+        content.setPadding(new Insets(10));
+        dialog.getDialogPane().setContent(content);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        Optional<ButtonType> result = dialog.showAndWait();
+        if (!result.isPresent() || result.get() != ButtonType.OK)
+            return;
+
+        BatchExporter.Format format = formatBox.getValue();
+        String extension = format.getExtension();
+        List<Integer> pages;
+        IntFunction<File> target;
+        if (currentPageRadio.isSelected()) {
             FileChooser fileChooser = new FileChooser();
             fileChooser.setTitle("Save Page As Image");
-            fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("PNG Image", "*.png"));
-            fileChooser.setInitialFileName("Page_" + (currentPage + 1) + ".png");
-
+            fileChooser.getExtensionFilters()
+                    .add(new FileChooser.ExtensionFilter(format + " Image", "*." + extension));
+            fileChooser.setInitialFileName("Page_" + (currentPage + 1) + "." + extension);
             File file = fileChooser.showSaveDialog(stage);
-            if (file != null) {
-                ImageIO.write(image, "png", file);
-                System.out.println("Exported page to " + file.getAbsolutePath());
+            if (file == null)
+                return;
+            pages = Arrays.asList(currentPage);
+            target = pageIndex -> file;
+        } else {
+            try {
+                pages = allPagesRadio.isSelected() ? PageRanges.all(pageCount)
+                        : PageRanges.parse(customRangeField.getText(), pageCount);
+            } catch (IllegalArgumentException ex) {
+                Alert alert = new Alert(Alert.AlertType.ERROR, ex.getMessage());
+                alert.initOwner(stage);
+                alert.setHeaderText("Cannot export these pages");
+                alert.showAndWait();
+                return;
+            }
+            if (pages.isEmpty())
+                return;
+            DirectoryChooser directoryChooser = new DirectoryChooser();
+            directoryChooser.setTitle("Export Pages To Folder");
+            File folder = directoryChooser.showDialog(stage);
+            if (folder == null)
+                return;
+            String baseName = session.file.getName().replaceFirst("(?i)\\.pdf$", "");
+            String number = "%0" + String.valueOf(pageCount).length() + "d";
+            target = pageIndex -> new File(folder,
+                    baseName + "_" + String.format(number, pageIndex + 1) + "." + extension);
+        }
+
+        exportPages(stage, session, pages, format, dpiBox.getValue(), colorModeBox.getValue(), target);
+    }
+
+    // Renders on a worker pool with its own document copies, so the viewer keeps working meanwhile
+    private void exportPages(Stage stage, DocumentSession session, List<Integer> pages, BatchExporter.Format format,
+            float dpi, ColorMode colorMode, IntFunction<File> target) {
+        BatchExporter exporter = new BatchExporter(session.file, pages, format, dpi, colorMode, target);
+        final int total = pages.size();
+        JobProgressDialog progress = new JobProgressDialog(stage, "Exporting " + session.file.getName());
+        progress.setOnCancel(exporter::cancel);
+        progress.update(0, total, "Exporting " + total + " pages...");
+        progress.show();
+        exporter.start(new BatchExporter.Listener() {
+            @Override
+            public void pageExported(int done, int total, double pagesPerSecond) {
+                String status = String.format("Exported %d of %d pages (%.1f pages/s)", done, total, pagesPerSecond);
+                Platform.runLater(() -> progress.update(done, total, status));
             }
 
-        } catch (Exception ex) {
-            ex.printStackTrace();
+            @Override
+            public void finished(boolean completed, int failed) {
+                Platform.runLater(progress::close);
+                System.out.println(completed ? "Exported " + total + " pages" + (failed > 0 ? ", " + failed + " failed" : "")
+                        : "Export cancelled");
+            }
+        });
+    }
+
+    // Pages and thumbnails of every tab are drawn again in the new mode; other modes stay cached
+    private void setViewColorMode(ColorMode colorMode) {
+        if (colorMode == null || colorMode == viewColorMode)
+            return;
+        viewColorMode = colorMode;
+        for (DocumentSession session : sessions.values()) {
+            if (session.thumbnails != null) {
+                session.thumbnails.clear();
+            }
+        }
+        if (pageListView != null) {
+            pageListView.refresh();
+        }
+        if (document == null)
+            return;
+        if (continuousMode) {
+            continuousView.redraw();
+        } else {
+            showPage(currentPage);
         }
     }
 
     private void zoom(double dpiChange) {
-        renderDPI += dpiChange;
-        if (renderDPI < 75f)
-            renderDPI = 75f;
-        if (renderDPI > 600f)
-            renderDPI = 600f;
+        zoomTo(renderDPI + dpiChange);
+    }
+
+    private void zoomBy(double factor) {
+        zoomTo(renderDPI * factor);
+    }
+
+    // Zooming by hand leaves any fit mode
+    private void zoomTo(double dpi) {
+        setFitMode(FitMode.NONE);
+        setZoom((float) Math.max(75, Math.min(600, dpi)));
+    }
+
+    // The bitmap on screen is stretched right away; only the zoom the user settles on is rendered
+    private void setZoom(float target) {
+        if (document == null || target == renderDPI)
+            return;
+        double factor = target / renderDPI;
+        renderDPI = target;
+        renderScheduler.newTicket(); // a render for the old zoom must not land on top of the stretched page
+        prefetcher.stop();
+        if (continuousMode) {
+            continuousView.setLayoutDpi(renderDPI);
+        } else if (pdfImageView.getImage() != null) {
+            tileView.clear(); // tiles are placed for the old zoom; the preview underneath stretches
+            displayImage(pdfImageView.getImage(), pdfImageView.getFitWidth() * factor,
+                    pdfImageView.getFitHeight() * factor, highlights);
+            lastRenderMillis = -1;
+        }
+        updateStatusBar();
+        zoomSettle.playFromStart();
+    }
+
+    private void applyZoom() {
+        if (document == null)
+            return;
+        if (continuousMode) {
+            updateContinuousDpi();
+            updateStatusBar();
+            return;
+        }
         showPage(currentPage);
     }
 
+    private void setFitMode(FitMode mode) {
+        fitMode = mode;
+        fitPageToggle.setSelected(mode == FitMode.PAGE);
+        setPixelScale(mode == FitMode.NONE ? 1f : outputScale());
+        refit();
+    }
+
+    // Pixels per layout pixel on the screen the viewer is on, e.g. 2 on a Retina display
+    private float outputScale() {
+        Window window = rootPane.getScene() == null ? null : rootPane.getScene().getWindow();
+        return window == null ? 1f : (float) Math.max(1, window.getOutputScaleX());
+    }
+
+    // Same layout, sharper bitmap: the page on screen stays until the settled render replaces it
+    private void setPixelScale(float scale) {
+        if (scale == pixelScale)
+            return;
+        pixelScale = scale;
+        if (document == null)
+            return;
+        renderScheduler.newTicket();
+        zoomSettle.playFromStart();
+    }
+
+    // Recomputes the zoom of an active fit mode, e.g. after the window was resized
+    private void refit() {
+        DocumentSession session = activeSession;
+        if (fitMode == FitMode.NONE || session == null)
+            return;
+        withPageSizes(session, () -> {
+            if (session == activeSession && fitMode != FitMode.NONE && currentPage < session.pageCount) {
+                setZoom(fitDpi(session, currentPage));
+            }
+        });
+    }
+
+    // Zoom at which a page exactly fills the viewer's width (or its whole area), in layout pixels
+    private float fitDpi(DocumentSession session, int pageIndex) {
+        double width;
+        double height;
+        if (continuousMode) {
+            width = continuousView.getWidth() - 20; // scroll bar and page shadow
+            height = continuousView.getHeight() - 16; // cell padding
+        } else {
+            Insets insets = scrollPane.getInsets();
+            width = scrollPane.getWidth() - insets.getLeft() - insets.getRight();
+            height = scrollPane.getHeight() - insets.getTop() - insets.getBottom();
+            if (fitMode == FitMode.WIDTH) {
+                width -= 16; // keep room for the scroll bar so it cannot flip the fit back and forth
+            }
+        }
+        if (width <= 0 || height <= 0)
+            return renderDPI; // not laid out yet
+        double dpi = width * 72 / session.pageWidths[pageIndex];
+        if (fitMode == FitMode.PAGE) {
+            dpi = Math.min(dpi, height * 72 / session.pageHeights[pageIndex]);
+        }
+        return (float) Math.max(25, Math.min(600, dpi));
+    }
+
     // Method to improve Dialogue for printing
     private void showPrintDialog(Stage owner) {
         Dialog<ButtonType> dialog = new Dialog<>();
@@ -745,6 +1715,7 @@ public class CleanView extends Application {
 
         // === PREVIEW SECTION ===
         ImageView previewImage = new ImageView();
+        pixelPool.track(previewImage);
         previewImage.setPreserveRatio(true);
         previewImage.setFitWidth(220);
         previewImage.setFitHeight(300);
@@ -759,8 +1730,15 @@ public class CleanView extends Application {
         previewBox.setAlignment(Pos.CENTER);
 
         ComboBox<String> colorModeBox = new ComboBox<>();
-        colorModeBox.getItems().addAll("Color", "Black & White");
-        colorModeBox.setValue("Color");
+        for (ColorMode mode : ColorMode.values()) {
+            colorModeBox.getItems().add(mode.getLabel());
+        }
+        colorModeBox.setValue(ColorMode.COLOR.getLabel());
+
+        // Vector sends the page content itself; raster is for printers that choke on it
+        ComboBox<String> printModeBox = new ComboBox<>();
+        printModeBox.getItems().addAll(PRINT_VECTOR, PRINT_RASTER);
+        printModeBox.setValue(PRINT_VECTOR);
 
         VBox settingsBox = new VBox(10,
                 new Label("Printer:"), printerBox,
@@ -768,7 +1746,8 @@ public class CleanView extends Application {
                 new Label("Page Range:"), allPagesRadio, currentPageRadio,
                 new HBox(10, customRangeRadio, customRangeField),
                 new Label("Orientation:"), orientationBox,
-                new Label("Color Mode:"), colorModeBox);
+                new Label("Color Mode:"), colorModeBox,
+                new Label("Print As:"), printModeBox);
 
         HBox content = new HBox(30, settingsBox, previewBox);
         content.setPadding(new Insets(10));
@@ -781,31 +1760,19 @@ public class CleanView extends Application {
 
         Runnable updatePreviewList = () -> {
             pagesToPreview.clear();
-            int total = document.getNumberOfPages();
-            try {
-                if (allPagesRadio.isSelected()) {
-                    for (int i = 0; i < total; i++)
-                        pagesToPreview.add(i);
-                } else if (currentPageRadio.isSelected()) {
-                    pagesToPreview.add(currentPage);
-                } else if (customRangeRadio.isSelected()) {
-                    String input = customRangeField.getText().trim();
-                    String[] parts = input.split(",");
-                    for (String part : parts) {
-                        if (part.contains("-")) {
-                            String[] range = part.split("-");
-                            int start = Math.max(0, Integer.parseInt(range[0].trim()) - 1);
-                            int end = Math.min(total - 1, Integer.parseInt(range[1].trim()) - 1);
-                            for (int i = start; i <= end; i++)
-                                pagesToPreview.add(i);
-                        } else {
-                            int index = Math.max(0, Math.min(total - 1, Integer.parseInt(part.trim()) - 1));
-                            pagesToPreview.add(index);
-                        }
-                    }
+            int total = pageCount;
+            if (allPagesRadio.isSelected()) {
+                pagesToPreview.addAll(PageRanges.all(total));
+            } else if (currentPageRadio.isSelected()) {
+                pagesToPreview.add(currentPage);
+            } else if (customRangeRadio.isSelected()) {
+                try {
+                    pagesToPreview.addAll(PageRanges.parse(customRangeField.getText(), total));
+                } catch (IllegalArgumentException ex) {
+                    previewImage.setImage(null);
+                    previewLabel.setText(ex.getMessage()); // nothing is printed until the range is fixed
+                    return;
                 }
-            } catch (Exception ex) {
-                System.out.println("Invalid custom range input.");
             }
 
             if (!pagesToPreview.isEmpty()) {
@@ -856,38 +1823,45 @@ public class CleanView extends Application {
             javafx.print.Printer selectedPrinter = printerBox.getValue();
             int copies = copiesSpinner.getValue();
             String orientation = orientationBox.getValue();
-            printPages(selectedPrinter, pagesToPreview, orientation, copies);
+            ColorMode colorMode = ColorMode.fromLabel(colorModeBox.getValue());
+            if (PRINT_VECTOR.equals(printModeBox.getValue())) {
+                printVector(owner, selectedPrinter, pagesToPreview, orientation, copies, colorMode);
+            } else {
+                printPages(owner, selectedPrinter, pagesToPreview, orientation, copies, colorMode);
+            }
         }
     }
 
     // Helper method to show preview of a specific page
     private void showPreviewPage(ImageView view, Label label, int pageIndex, String colorMode) {
+        RenderCache.Key cacheKey = new RenderCache.Key(documentId, pageIndex, 72, ColorMode.fromLabel(colorMode));
+        Image cached = acquireCached(cacheKey);
+        if (cached != null) {
+            view.setImage(cached);
+            pixelPool.release(cached);
+            label.setText("Preview: Page " + (pageIndex + 1));
+            return;
+        }
+
         // Clear old preview immediately
         label.setText("Rendering preview...");
         view.setImage(null);
 
         // Build new background task
+        final DocumentSession session = activeSession;
         Task<WritableImage> renderTask = new Task<WritableImage>() {
             @Override
             protected WritableImage call() {
                 try {
-                    BufferedImage image = renderer.renderImageWithDPI(pageIndex, 72);
-
-                    if ("Black & White".equals(colorMode)) {
-                        for (int y = 0; y < image.getHeight(); y++) {
-                            for (int x = 0; x < image.getWidth(); x++) {
-                                int rgb = image.getRGB(x, y);
-                                int r = (rgb >> 16) & 0xFF;
-                                int g = (rgb >> 8) & 0xFF;
-                                int b = rgb & 0xFF;
-                                int gray = (r + g + b) / 3;
-                                int grayRGB = (gray << 16) | (gray << 8) | gray;
-                                image.setRGB(x, y, grayRGB);
-                            }
-                        }
+                    PixelBufferPool.PooledImage fxImage;
+                    synchronized (documentLock) {
+                        if (session == null || session.document == null)
+                            return null;
+                        fxImage = pixelPool.render(session.renderer, session.document, pageIndex, 72,
+                                ColorMode.fromLabel(colorMode));
                     }
-
-                    return SwingFXUtils.toFXImage(image, null);
+                    cacheShared(cacheKey, fxImage);
+                    return fxImage;
                 } catch (Exception e) {
                     e.printStackTrace();
                     return null;
@@ -899,6 +1873,7 @@ public class CleanView extends Application {
             WritableImage result = renderTask.getValue();
             if (result != null) {
                 view.setImage(result);
+                pixelPool.release(result);
                 label.setText("Preview: Page " + (pageIndex + 1));
             } else {
                 label.setText("Preview failed");
@@ -913,48 +1888,155 @@ public class CleanView extends Application {
         thread.start();
     }
 
-    // Method to show modern dialogue and print pages
-    private void printPages(javafx.print.Printer printer, List<Integer> pages, String orientation, int copies) {
+    // Renders each page once and spools it while the next one renders; copies are left to the printer
+    private void printPages(Stage owner, javafx.print.Printer printer, List<Integer> pages, String orientation,
+            int copies, ColorMode colorMode) {
         javafx.print.PrinterJob job = javafx.print.PrinterJob.createPrinterJob(printer);
-        if (job != null) {
-            javafx.print.PageLayout layout = job.getJobSettings().getPageLayout();
-            if (orientation.equals("Landscape")) {
-                layout = printer.createPageLayout(javafx.print.Paper.A4, javafx.print.PageOrientation.LANDSCAPE,
-                        javafx.print.Printer.MarginType.DEFAULT);
-            } else {
-                layout = printer.createPageLayout(javafx.print.Paper.A4, javafx.print.PageOrientation.PORTRAIT,
-                        javafx.print.Printer.MarginType.DEFAULT);
-            }
-
-            for (int c = 0; c < copies; c++) {
-                for (int pageIndex : pages) {
-                    try {
-                        BufferedImage image = renderer.renderImageWithDPI(pageIndex, 300);
-                        WritableImage fxImg = SwingFXUtils.toFXImage(image, null);
-                        ImageView imageView = new ImageView(fxImg);
-                        imageView.setPreserveRatio(true);
-                        imageView.setFitWidth(layout.getPrintableWidth());
-
-                        boolean success = job.printPage(layout, imageView);
-                        if (!success) {
-                            System.out.println("Failed to print page " + (pageIndex + 1));
-                        }
-                    } catch (Exception ex) {
-                        ex.printStackTrace();
-                    }
+        if (job == null || pages.isEmpty() || activeSession == null)
+            return;
+
+        javafx.print.PageLayout layout = printer.createPageLayout(javafx.print.Paper.A4,
+                orientation.equals("Landscape") ? javafx.print.PageOrientation.LANDSCAPE
+                        : javafx.print.PageOrientation.PORTRAIT,
+                javafx.print.Printer.MarginType.DEFAULT);
+        job.getJobSettings().setPageLayout(layout);
+        job.getJobSettings().setCopies(copies);
+        job.getJobSettings().setCollation(javafx.print.Collation.COLLATED);
+        job.getJobSettings().setPrintColor(colorMode == ColorMode.COLOR ? javafx.print.PrintColor.COLOR
+                : javafx.print.PrintColor.MONOCHROME);
+
+        final DocumentSession session = activeSession;
+        PrintPipeline pipeline = new PrintPipeline(job, layout, new ArrayList<>(pages), new PrintPipeline.PageRenderer() {
+            @Override
+            public Image render(int pageIndex) throws Exception {
+                synchronized (documentLock) {
+                    if (session.document == null)
+                        throw new IOException("Document was closed while printing");
+                    return pixelPool.render(session.renderer, session.document, pageIndex, 300, colorMode);
                 }
             }
-            job.endJob();
+
+            @Override
+            public void release(Image image) {
+                pixelPool.release(image); // the next page of the same size reuses it
+            }
+        });
+
+        final int total = pages.size();
+        JobProgressDialog progress = new JobProgressDialog(owner, "Printing " + session.file.getName());
+        progress.setOnCancel(pipeline::cancel);
+        progress.update(0, total, "Preparing " + total + " pages...");
+        progress.show();
+        final long start = System.nanoTime();
+        pipeline.start(new PrintPipeline.Listener() {
+            @Override
+            public void pageSpooled(int done, int total) {
+                Platform.runLater(() -> progress.update(done, total, "Sent " + done + " of " + total + " pages"));
+            }
+
+            @Override
+            public void finished(boolean completed) {
+                long seconds = (System.nanoTime() - start) / 1_000_000_000L;
+                Platform.runLater(progress::close);
+                System.out.println(completed ? "Printed " + total + " pages in " + seconds + " s" : "Printing cancelled");
+            }
+        });
+    }
+
+    // Falls back to the raster pipeline when the printer has no java.awt service or rejects the job
+    private void printVector(Stage owner, javafx.print.Printer printer, List<Integer> pages, String orientation,
+            int copies, ColorMode colorMode) {
+        final DocumentSession session = activeSession;
+        if (pages.isEmpty() || session == null)
+            return;
+        PrintService service = VectorPrintJob.findService(printer.getName());
+        if (service == null) {
+            System.out.println("No vector print service for " + printer.getName() + ", printing as images");
+            printPages(owner, printer, pages, orientation, copies, colorMode);
+            return;
         }
+
+        VectorPrintJob vectorJob = new VectorPrintJob(session.file, service, new ArrayList<>(pages),
+                orientation.equals("Landscape") ? org.apache.pdfbox.printing.Orientation.LANDSCAPE
+                        : org.apache.pdfbox.printing.Orientation.PORTRAIT,
+                copies, colorMode);
+        final int total = pages.size();
+        JobProgressDialog progress = new JobProgressDialog(owner, "Printing " + session.file.getName());
+        progress.setOnCancel(vectorJob::cancel);
+        progress.update(0, total, "Preparing " + total + " pages...");
+        progress.show();
+        final long start = System.nanoTime();
+        vectorJob.start(new VectorPrintJob.Listener() {
+            @Override
+            public void pageSent(int done, int total) {
+                Platform.runLater(() -> progress.update(done, total, "Sent " + done + " of " + total + " pages"));
+            }
+
+            @Override
+            public void finished(boolean completed) {
+                long seconds = (System.nanoTime() - start) / 1_000_000_000L;
+                Platform.runLater(progress::close);
+                System.out.println(completed ? "Printed " + total + " pages in " + seconds + " s" : "Printing cancelled");
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                Platform.runLater(() -> {
+                    progress.close();
+                    System.out.println("Vector printing failed, printing as images");
+                    printPages(owner, printer, pages, orientation, copies, colorMode);
+                });
+            }
+        });
     }
 
     private void printCurrentPage() {
-        if (document == null || renderer == null)
+        final DocumentSession session = activeSession;
+        if (session == null)
+            return;
+
+        PrinterJob job = PrinterJob.getPrinterJob();
+        if (!job.printDialog())
             return;
+        final int pageIndex = currentPage;
+        new VectorPrintJob(session.file, job.getPrintService(), Arrays.asList(pageIndex),
+                org.apache.pdfbox.printing.Orientation.AUTO, job.getCopies(), viewColorMode).start(new VectorPrintJob.Listener() {
+                    @Override
+                    public void pageSent(int done, int total) {
+                    }
+
+                    @Override
+                    public void finished(boolean completed) {
+                        System.out.println(completed ? "Printed successfully" : "Printing cancelled");
+                    }
+
+                    @Override
+                    public void failed(Exception ex) {
+                        printCurrentPageAsImage(session, pageIndex);
+                    }
+                });
+    }
+
+    // Renders on the render thread, then prints from the FX thread
+    private void printCurrentPageAsImage(DocumentSession session, int pageIndex) {
+        ColorMode colorMode = viewColorMode;
+        renderScheduler.submit(RenderScheduler.PRIORITY_VISIBLE, () -> {
+            try {
+                Image fxImage;
+                synchronized (documentLock) {
+                    if (session.document == null)
+                        return; // tab was closed meanwhile
+                    fxImage = pixelPool.render(session.renderer, session.document, pageIndex, 300, colorMode);
+                }
+                Platform.runLater(() -> printImage(fxImage));
+            } catch (Exception ex) {
+                ex.printStackTrace();
+            }
+        });
+    }
 
+    private void printImage(Image fxImage) {
         try {
-            BufferedImage image = renderer.renderImageWithDPI(currentPage, 300);
-            WritableImage fxImage = SwingFXUtils.toFXImage(image, null);
             ImageView printView = new ImageView(fxImage);
             printView.setPreserveRatio(true);
             printView.setFitWidth(595); // A4 width in points, adjust as needed
@@ -976,36 +2058,175 @@ public class CleanView extends Application {
     }
 
     private void searchAndGoToPage(String keyword) {
-        try {
-            PDFTextStripper textStripper = new PDFTextStripper();
-            int totalPages = document.getNumberOfPages();
+        if (keyword.isEmpty()) {
+            showSearchResult("", -1); // clear highlights
+            return;
+        }
+        if (document == null)
+            return;
 
-            for (int i = 0; i < totalPages; i++) {
-                textStripper.setStartPage(i + 1);
-                textStripper.setEndPage(i + 1);
-                String pageText = textStripper.getText(document);
+        // Once the background index is complete, search never touches the PDF again
+        final TextIndex index = textIndex;
+        final SearchQuery query = compiledQuery(keyword);
+        if (index.isComplete()) {
+            int[] pages = index.pagesContaining(query);
+            showSearchResult(keyword, pages.length > 0 ? pages[0] : -1);
+            return;
+        }
 
-                if (pageText.toLowerCase().contains(keyword.toLowerCase())) {
-                    currentKeyword = keyword;
-                    showPage(i);
-                    return;
+        // Index still building: follow the indexer page by page instead of extracting pages again
+        final DocumentSession session = activeSession;
+        final int totalPages = pageCount;
+        statusLabel.setText("Searching...");
+        Task<Integer> searchTask = new Task<Integer>() {
+            @Override
+            protected Integer call() throws Exception {
+                for (int i = 0; i < totalPages; i++) {
+                    String pageText;
+                    while ((pageText = index.awaitPageText(i, INDEX_WAIT_MILLIS)) == null && !index.isFinished()) {
+                        if (session != activeSession)
+                            return -1;
+                    }
+                    if (pageText != null && query.find(pageText) >= 0) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+        };
+        searchTask.setOnSucceeded(evt -> {
+            if (session == activeSession) {
+                showSearchResult(keyword, searchTask.getValue());
+            }
+        });
+        searchTask.setOnFailed(evt -> searchTask.getException().printStackTrace());
+
+        Thread thread = new Thread(searchTask, "cleanview-search");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Scans every page off the FX thread and streams matching pages into the results panel
+    private void findAll(String keyword) {
+        final long generation = findAllGeneration.incrementAndGet();
+        if (keyword.isEmpty() || document == null) {
+            rootPane.setRight(null);
+            return;
+        }
+
+        findAllKeyword = keyword;
+        searchResults.start();
+        rootPane.setRight(searchResults);
+
+        final TextIndex index = textIndex;
+        final DocumentSession session = activeSession;
+        final int totalPages = pageCount;
+        final SearchQuery query = compiledQuery(keyword);
+        Thread scan = new Thread(() -> {
+            try {
+                for (int i = 0; i < totalPages; i++) {
+                    if (findAllGeneration.get() != generation)
+                        return; // query changed, stop scanning
+
+                    // Index text comes from the same position-sorted extractor the highlights use
+                    String pageText;
+                    while ((pageText = index.awaitPageText(i, INDEX_WAIT_MILLIS)) == null && !index.isFinished()) {
+                        if (findAllGeneration.get() != generation || session != activeSession)
+                            return;
+                    }
+                    if (pageText == null)
+                        continue; // indexing stopped before this page
+
+                    final SearchHit hit = SearchHit.fromPage(i, pageText, query);
+                    final int scanned = i + 1;
+                    if (hit != null || scanned % 25 == 0) {
+                        Platform.runLater(() -> {
+                            if (findAllGeneration.get() != generation)
+                                return;
+                            if (hit != null) {
+                                searchResults.addHit(hit, scanned, totalPages);
+                            } else {
+                                searchResults.progress(scanned, totalPages);
+                            }
+                        });
+                    }
                 }
+                Platform.runLater(() -> {
+                    if (findAllGeneration.get() == generation) {
+                        searchResults.finish();
+                    }
+                });
+            } catch (Exception ex) {
+                ex.printStackTrace();
             }
+        }, "cleanview-find-all");
+        scan.setDaemon(true);
+        scan.start();
+    }
 
+    private void cancelFindAll() {
+        findAllGeneration.incrementAndGet();
+        currentMatch = -1;
+        searchResults.finish();
+    }
+
+    private void showSearchResult(String keyword, int pageIndex) {
+        if (pageIndex >= 0) {
+            currentKeyword = keyword;
+            jumpToPage(pageIndex);
+        } else {
             // System.out.println("Keyword not found.");
             currentKeyword = "";
             highlights.clear();
             drawHighlights();
-        } catch (Exception ex) {
-            ex.printStackTrace();
+            updateStatusBar();
+        }
+    }
+
+    // Fills the full-text index in the background, extracting pages on every core. Searches read
+    // page text only from the index, so this is the one place pages are extracted for it.
+    private void startIndexing(File pdfFile) {
+        stopIndexing();
+        final TextIndex index = textIndex;
+        if (index == null || pageCount == 0)
+            return;
+
+        ParallelTextExtractor extractor = new ParallelTextExtractor(pdfFile, ParallelTextExtractor.defaultWorkers());
+        extractor.setCollectGlyphs(false); // the index needs only text; highlights extract their page on demand
+        indexExtractor = extractor;
+        extractor.extractAsync(0, pageCount - 1, page -> {
+            index.addPage(page.getPageIndex(), page.getText());
+            int done = page.getPageIndex() + 1;
+            if (done % 50 == 0 || done == index.getPageCount()) {
+                Platform.runLater(this::updateStatusBar);
+            }
+        }, () -> {
+            index.finish(); // wakes searches waiting for pages that will not come
+            Platform.runLater(this::updateStatusBar);
+        });
+    }
+
+    private void stopIndexing() {
+        if (indexExtractor != null) {
+            indexExtractor.cancel();
+            indexExtractor = null;
         }
     }
 
     @Override
     public void stop() throws Exception {
-        if (document != null) {
-            document.close();
+        renderScheduler.shutdown();
+        synchronized (documentLock) {
+            for (DocumentSession session : sessions.values()) {
+                if (session.indexExtractor != null) {
+                    session.indexExtractor.cancel();
+                }
+                if (session.document != null) {
+                    session.document.close();
+                }
+            }
         }
+        stopIndexing();
         super.stop();
     }
 
@@ -1013,7 +2234,6 @@ public class CleanView extends Application {
         if (args.length > 0) {
             fileToOpen = args[0];
         }
-        System.out.println(args[0]);
         launch(args);
     }
 }   
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.sampath.pdfviewer;
+
+import org.apache.pdfbox.rendering.ImageType;
+
+/**
+ * Colour modes a page can be rendered in.
+ *
+ * Black & white is a threshold applied after drawing: Java2D has no fast
+ * loops for 1-bit rasters, so those pages are drawn in gray (exports) or
+ * colour (the screen, which needs 32-bit pixels) and reduced in one pass.
+ */
+public enum ColorMode {
+    COLOR("Color", ImageType.RGB),
+    GRAYSCALE("Grayscale", ImageType.GRAY),
+    MONOCHROME("Black & White", ImageType.GRAY);
+
+    private final String label;
+    private final ImageType imageType;
+
+    ColorMode(String label, ImageType imageType) {
+        this.label = label;
+        this.imageType = imageType;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /** The PDFBox raster type exported pages in this mode are drawn into, before any threshold. */
+    public ImageType getImageType() {
+        return imageType;
+    }
+
+    public static ColorMode fromLabel(String label) {
+        for (ColorMode mode : values()) {
+            if (mode.label.equals(label)) {
+                return mode;
+            }
+        }
+        return COLOR;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,179 @@
+package com.sampath.pdfviewer;
+
+import javafx.application.Platform;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.skin.VirtualFlow;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.StackPane;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Continuous vertical scroll view over all pages of a document.
+ *
+ * Every page is laid out from its page box size, but only the handful of
+ * cells near the viewport exist as nodes; the ListView recycles them as the
+ * user scrolls and each cell renders its page in the background. Node count
+ * and bitmap memory stay the same for 10 or 10,000 pages.
+ */
+public final class ContinuousPageView extends ListView<Integer> {
+
+    /**
+     * Supplies page bitmaps; {@link #render} is called on the render thread.
+     * Both lookups hand over one reference to the image, which the view gives
+     * back with {@link #release} once the cell's own image view holds it.
+     */
+    public interface PageImageSource {
+        Image cached(int pageIndex, float dpi);
+
+        Image render(int pageIndex, float dpi) throws Exception;
+
+        /** Called once for every cell's image view, e.g. to let it hold the image it shows. */
+        default void track(ImageView view) {
+        }
+
+        default void release(Image image) {
+        }
+    }
+
+    private final RenderScheduler scheduler;
+    private final PageImageSource source;
+    private float[] pageWidths = new float[0]; // page sizes in points, rotation applied
+    private float[] pageHeights = new float[0];
+    private float dpi = 150f; // layout zoom
+    private float bitmapDpi = 150f; // resolution pages are actually rendered at
+    private int firstVisiblePage = -1;
+    private int bitmapVersion = 0; // bumped when every page needs a new bitmap at the same size
+    private IntConsumer onFirstVisiblePageChanged = page -> {
+    };
+
+    public ContinuousPageView(RenderScheduler scheduler, PageImageSource source) {
+        this.scheduler = scheduler;
+        this.source = source;
+        setCellFactory(list -> new PageCell());
+        setFocusTraversable(false);
+        setStyle("-fx-background-color: #E5E5E5;");
+        skinProperty().addListener((obs, oldSkin, newSkin) -> Platform.runLater(this::watchScrollPosition));
+    }
+
+    /** Lays out a document from its page sizes in points; nothing is rendered yet. */
+    public void setPages(float[] widths, float[] heights) {
+        this.pageWidths = widths;
+        this.pageHeights = heights;
+        this.firstVisiblePage = -1;
+        bitmapVersion++; // a reused cell must not keep a page of the previous document
+        setItems(new PageIndexList(widths.length));
+    }
+
+    /**
+     * Sets the zoom pages are laid out at and the resolution their bitmaps are
+     * rendered at: lower to keep single bitmaps bounded at high zoom, higher
+     * to match a HiDPI screen.
+     */
+    public void setDpi(float dpi, float bitmapDpi) {
+        this.dpi = dpi;
+        this.bitmapDpi = bitmapDpi;
+        refresh();
+    }
+
+    /** Re-lays out pages at a new zoom but keeps their bitmaps, stretched, until {@link #setDpi} is called. */
+    public void setLayoutDpi(float dpi) {
+        this.dpi = dpi;
+        refresh();
+    }
+
+    /** Fetches every visible page again, e.g. after the colour mode changed. */
+    public void redraw() {
+        bitmapVersion++;
+        refresh();
+    }
+
+    public void setOnFirstVisiblePageChanged(IntConsumer listener) {
+        this.onFirstVisiblePageChanged = listener;
+    }
+
+    private void watchScrollPosition() {
+        VirtualFlow<?> flow = (VirtualFlow<?>) lookup(".virtual-flow");
+        if (flow == null)
+            return;
+        flow.positionProperty().addListener((obs, oldVal, newVal) -> {
+            IndexedCell<?> cell = flow.getFirstVisibleCell();
+            if (cell != null && cell.getIndex() != firstVisiblePage) {
+                firstVisiblePage = cell.getIndex();
+                onFirstVisiblePageChanged.accept(firstVisiblePage);
+            }
+        });
+    }
+
+    private final class PageCell extends ListCell<Integer> {
+        private final ImageView view = new ImageView();
+        private final StackPane frame = new StackPane(view);
+        // Page this cell currently shows; queued renders for any other page are skipped
+        private volatile int wantedPage = -1;
+        private volatile float wantedDpi = 0;
+        private int version = -1;
+
+        PageCell() {
+            source.track(view);
+            frame.setStyle("-fx-background-color: white;"
+                    + "-fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.2), 5, 0.0, 0, 1);");
+            frame.setMaxSize(StackPane.USE_PREF_SIZE, StackPane.USE_PREF_SIZE);
+            setStyle("-fx-background-color: transparent; -fx-padding: 8 0 8 0; -fx-alignment: center;");
+        }
+
+        @Override
+        protected void updateItem(Integer page, boolean empty) {
+            super.updateItem(page, empty);
+            setText(null);
+
+            if (empty || page == null || page >= pageWidths.length) {
+                wantedPage = -1;
+                view.setImage(null);
+                setGraphic(null);
+                return;
+            }
+
+            double scale = dpi / 72f;
+            double width = Math.floor(pageWidths[page] * scale);
+            double height = Math.floor(pageHeights[page] * scale);
+            view.setFitWidth(width);
+            view.setFitHeight(height);
+            frame.setPrefSize(width, height);
+            setGraphic(frame);
+
+            if (wantedPage == page && wantedDpi == bitmapDpi && version == bitmapVersion && view.getImage() != null)
+                return; // recycled onto the same page, keep what we have
+            wantedPage = page;
+            wantedDpi = bitmapDpi;
+            version = bitmapVersion;
+
+            Image cached = source.cached(page, bitmapDpi);
+            view.setImage(cached);
+            source.release(cached);
+            if (cached == null) {
+                requestRender(page, bitmapDpi);
+            }
+        }
+
+        private void requestRender(int page, float pageDpi) {
+            scheduler.submit(RenderScheduler.PRIORITY_VISIBLE, () -> {
+                if (wantedPage != page || wantedDpi != pageDpi)
+                    return; // cell was recycled before we got to it
+                try {
+                    Image image = source.render(page, pageDpi);
+                    Platform.runLater(() -> {
+                        if (wantedPage == page && wantedDpi == pageDpi) {
+                            view.setImage(image);
+                        }
+                        source.release(image);
+                    });
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.sampath.pdfviewer;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of thumbnails and low-res page previews that survives restarts.
+ *
+ * Entries live under ~/.cleanview/cache (or -Dcleanview.diskcache.dir), one
+ * folder per document named after a hash of the PDF's content, so a renamed
+ * or moved file still hits and an edited one does not. Total size is capped by
+ * -Dcleanview.diskcache.mb (default 200, 0 disables the cache) and the least
+ * recently used files are deleted first, in the order kept by an in-memory
+ * index that is loaded once from the files' modification times. Files are
+ * written under a temporary name and renamed into place, so a reader or a
+ * crash never sees half an image. Nothing ever leaves the machine.
+ */
+public final class DiskPageCache {
+
+    // Files up to this size are hashed in full; larger ones are sampled so opening stays fast
+    private static final long FULL_HASH_LIMIT = 64L * 1024 * 1024;
+    private static final int SAMPLE_SIZE = 1024 * 1024;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path root;
+    private final long budgetBytes;
+    // Every cached file and its size, least recently used first; guarded by itself
+    private final LinkedHashMap<Path, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long usedBytes = 0;
+    private final ExecutorService io = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "cleanview-disk-cache");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DiskPageCache(Path root, long budgetBytes) {
+        this.root = root;
+        this.budgetBytes = budgetBytes;
+        if (isEnabled()) {
+            io.execute(this::loadEntries); // runs before any write, which share the thread
+        }
+    }
+
+    public static DiskPageCache fromSystemProperties() {
+        String dir = System.getProperty("cleanview.diskcache.dir",
+                Paths.get(System.getProperty("user.home"), ".cleanview", "cache").toString());
+        long mb = Long.getLong("cleanview.diskcache.mb", 200);
+        return new DiskPageCache(Paths.get(dir), Math.max(0, mb) * 1024 * 1024);
+    }
+
+    public boolean isEnabled() {
+        return budgetBytes > 0;
+    }
+
+    /**
+     * Content hash identifying a PDF. Small files are hashed completely; for
+     * large ones the length plus the head, middle and tail are hashed.
+     */
+    public static String fingerprint(File pdf) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IOException(ex);
+        }
+
+        try (RandomAccessFile in = new RandomAccessFile(pdf, "r")) {
+            long length = in.length();
+            byte[] buffer = new byte[SAMPLE_SIZE];
+            if (length <= FULL_HASH_LIMIT) {
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    digest.update(buffer, 0, read);
+                }
+            } else {
+                digest.update(Long.toString(length).getBytes());
+                for (long offset : new long[] { 0, length / 2, length - SAMPLE_SIZE }) {
+                    in.seek(offset);
+                    in.readFully(buffer);
+                    digest.update(buffer);
+                }
+            }
+        }
+
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /** Reads a cached image, or returns null if there is none. */
+    public BufferedImage read(String documentKey, String name) {
+        if (!isEnabled() || documentKey == null)
+            return null;
+        Path file = root.resolve(documentKey).resolve(name + ".png");
+        if (!Files.isRegularFile(file))
+            return null;
+        try {
+            BufferedImage image = ImageIO.read(file.toFile());
+            synchronized (entries) {
+                entries.get(file); // LRU touch
+            }
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis())); // and across restarts
+            return image;
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            return null;
+        }
+    }
+
+    /** Stores an image in the background, evicting old entries if the cap is exceeded. */
+    public void write(String documentKey, String name, BufferedImage image) {
+        if (!isEnabled() || documentKey == null)
+            return;
+        io.execute(() -> {
+            Path temp = null;
+            try {
+                Path dir = root.resolve(documentKey);
+                Files.createDirectories(dir);
+                Path file = dir.resolve(name + ".png");
+                temp = Files.createTempFile(dir, name, TEMP_SUFFIX);
+                ImageIO.write(image, "png", temp.toFile());
+                long size = Files.size(temp);
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                temp = null;
+
+                List<Path> evicted = new ArrayList<>();
+                synchronized (entries) {
+                    Long previous = entries.put(file, size);
+                    usedBytes += size - (previous == null ? 0 : previous);
+                    if (usedBytes > budgetBytes) {
+                        evict(evicted);
+                    }
+                }
+                delete(evicted);
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            } finally {
+                if (temp != null) {
+                    try {
+                        Files.deleteIfExists(temp);
+                    } catch (IOException ex) {
+                        ex.printStackTrace();
+                    }
+                }
+            }
+        });
+    }
+
+    // Takes least recently used files out of the index until it is back under 90% of its budget,
+    // so one pass frees room for many writes; call with entries locked
+    private void evict(List<Path> evicted) {
+        long target = budgetBytes * 9 / 10;
+        Iterator<Map.Entry<Path, Long>> it = entries.entrySet().iterator();
+        while (usedBytes > target && it.hasNext()) {
+            Map.Entry<Path, Long> entry = it.next();
+            usedBytes -= entry.getValue();
+            evicted.add(entry.getKey());
+            it.remove();
+        }
+    }
+
+    private static void delete(List<Path> files) throws IOException {
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+            Path dir = file.getParent();
+            try (Stream<Path> rest = Files.list(dir)) {
+                if (!rest.findAny().isPresent()) {
+                    Files.deleteIfExists(dir);
+                }
+            }
+        }
+    }
+
+    // Builds the index from what earlier sessions left, oldest first, and drops unfinished writes
+    private void loadEntries() {
+        if (!Files.isDirectory(root))
+            return;
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(root)) {
+            walk.filter(Files::isRegularFile).forEach(files::add);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            return;
+        }
+        files.sort(Comparator.comparingLong(DiskPageCache::lastModified));
+
+        synchronized (entries) {
+            for (Path file : files) {
+                try {
+                    if (file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                        Files.deleteIfExists(file);
+                    } else {
+                        long size = Files.size(file);
+                        entries.put(file, size);
+                        usedBytes += size;
+                    }
+                } catch (IOException ex) {
+                    ex.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException ex) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.sampath.pdfviewer;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.ScratchFile;
+import org.apache.pdfbox.pdfparser.PDFParser;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Opens PDFs, switching very large files to a bounded-memory mode.
+ *
+ * Files from -Dcleanview.largefile.mb (default 200) upwards are read
+ * through a memory-mapped source instead of the heap, and PDFBox keeps
+ * decoded streams in memory only up to -Dcleanview.scratch.mb (default 64)
+ * before spilling them to a temp scratch file. Smaller files load the
+ * usual way.
+ */
+public final class DocumentLoader {
+
+    private static final long MB = 1024L * 1024L;
+
+    private DocumentLoader() {
+    }
+
+    public static PDDocument load(File file) throws IOException {
+        if (!isLargeFile(file))
+            return PDDocument.load(file);
+
+        ScratchFile scratch = new ScratchFile(MemoryUsageSetting.setupMixed(scratchMemoryMB() * MB));
+        MappedRandomAccessRead source = null;
+        try {
+            source = new MappedRandomAccessRead(file);
+            PDFParser parser = new PDFParser(source, "", scratch);
+            parser.parse();
+            return parser.getPDDocument(); // closing the document closes source and scratch file
+        } catch (IOException | RuntimeException ex) {
+            if (source != null) {
+                source.close();
+            }
+            scratch.close();
+            throw ex;
+        }
+    }
+
+    public static boolean isLargeFile(File file) {
+        return file.length() >= Math.max(0, Long.getLong("cleanview.largefile.mb", 200)) * MB;
+    }
+
+    /** Short description of how a file is held in memory, for the status bar. */
+    public static String memoryMode(File file) {
+        return isLargeFile(file) ? "Mapped, heap ≤ " + scratchMemoryMB() + " MB" : "In memory";
+    }
+
+    private static long scratchMemoryMB() {
+        return Math.max(1, Long.getLong("cleanview.scratch.mb", 64));
+    }
+}
@@ -0,0 +1,58 @@
+package com.sampath.pdfviewer;
+
+import javafx.scene.control.Tab;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import java.io.File;
+
+/**
+ * Everything that belongs to one open document tab.
+ *
+ * The viewer works on the fields of the tab on screen; switching tabs
+ * stores those fields back here and loads the next tab's, so each tab
+ * keeps its own page, zoom, caches and index. Background work of a tab
+ * that is not on screen (thumbnails, indexing) is paused.
+ */
+public class DocumentSession {
+
+    final File file;
+    PDDocument document;
+    PDFRenderer renderer;
+    int documentId;
+    int pageCount;
+    int currentPage = 0;
+    float renderDPI;
+    float[] pageWidths; // page sizes in points, rotation applied; read once when first needed
+    float[] pageHeights;
+    PageLabels pageLabels = PageLabels.none();
+    String memoryMode = "";
+    volatile String documentKey; // content hash for the disk cache, filled in while opening
+    TextIndex textIndex;
+    ParallelTextExtractor indexExtractor;
+    ThumbnailService thumbnails;
+    final GlyphCache glyphCache = new GlyphCache();
+    Tab tab;
+    boolean sidebarReady = false;
+    Runnable afterFirstPage; // deferred open stages, run once page 1 is displayed
+
+    DocumentSession(File file) {
+        this.file = file;
+    }
+
+    /** Stops background work when the tab leaves the screen. */
+    void pause() {
+        if (thumbnails != null) {
+            thumbnails.cancelPending();
+        }
+        if (indexExtractor != null) {
+            indexExtractor.setPaused(true);
+        }
+    }
+
+    void resume() {
+        if (indexExtractor != null) {
+            indexExtractor.setPaused(false);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.sampath.pdfviewer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the extracted text and glyph boxes of recently viewed pages.
+ *
+ * Glyph boxes are stored in PDF units, so one extraction serves every zoom
+ * level: changing zoom with a search active only rescales the boxes and
+ * never re-reads the page content. Holds the last
+ * -Dcleanview.glyphs.cached pages (default 200) of the open document.
+ */
+public class GlyphCache {
+
+    private final int maxPages;
+    private final Map<Integer, PageText> pages;
+    private int documentId = -1;
+
+    public GlyphCache() {
+        this.maxPages = Math.max(1, Integer.getInteger("cleanview.glyphs.cached", 200));
+        this.pages = new LinkedHashMap<Integer, PageText>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, PageText> eldest) {
+                return size() > maxPages;
+            }
+        };
+    }
+
+    public synchronized PageText get(int documentId, int pageIndex) {
+        if (documentId != this.documentId)
+            return null;
+        return pages.get(pageIndex);
+    }
+
+    public synchronized void put(int documentId, PageText page) {
+        if (documentId != this.documentId) {
+            pages.clear(); // a different document was opened
+            this.documentId = documentId;
+        }
+        pages.put(page.getPageIndex(), page);
+    }
+
+    public synchronized void clear() {
+        pages.clear();
+        documentId = -1;
+    }
+}
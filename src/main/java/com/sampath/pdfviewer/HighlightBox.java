@@ -0,0 +1,31 @@
+package com.sampath.pdfviewer;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * A search highlight on a page, in fractions of the page size, tagged with
+ * the query term it matched so each term can get its own colour, and with
+ * the match it belongs to (its order on the page) so one match can be
+ * singled out while stepping through results.
+ */
+public class HighlightBox extends Rectangle2D.Float {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int term;
+    private final int match;
+
+    public HighlightBox(float x, float y, float width, float height, int term, int match) {
+        super(x, y, width, height);
+        this.term = term;
+        this.match = match;
+    }
+
+    public int getTerm() {
+        return term;
+    }
+
+    public int getMatch() {
+        return match;
+    }
+}
@@ -0,0 +1,68 @@
+package com.sampath.pdfviewer;
+
+import javafx.geometry.Insets;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import javafx.scene.Scene;
+
+/**
+ * Small non-modal window showing the progress of a long job (printing,
+ * batch export) with a Cancel button. The viewer stays usable meanwhile.
+ */
+public class JobProgressDialog {
+
+    private final Stage stage = new Stage();
+    private final ProgressBar progressBar = new ProgressBar(0);
+    private final Label statusLabel = new Label();
+    private final Button cancelButton = new Button("Cancel");
+    private Runnable onCancel = () -> {
+    };
+
+    public JobProgressDialog(Window owner, String title) {
+        stage.setTitle(title);
+        stage.initOwner(owner);
+        stage.initModality(Modality.NONE);
+
+        progressBar.setPrefWidth(320);
+        statusLabel.setStyle("-fx-font-size: 12px; -fx-font-family: 'Segoe UI';");
+        cancelButton.setOnAction(e -> {
+            cancelButton.setDisable(true);
+            statusLabel.setText("Cancelling...");
+            onCancel.run();
+        });
+        stage.setOnCloseRequest(e -> {
+            if (!cancelButton.isDisabled()) {
+                cancelButton.fire(); // closing the window cancels the job
+            }
+        });
+
+        VBox content = new VBox(10, statusLabel, progressBar, cancelButton);
+        content.setPadding(new Insets(15));
+        stage.setScene(new Scene(content));
+    }
+
+    public void setOnCancel(Runnable onCancel) {
+        this.onCancel = onCancel;
+    }
+
+    public void show() {
+        stage.show();
+    }
+
+    /** Call on the FX thread. */
+    public void update(int done, int total, String status) {
+        progressBar.setProgress(total == 0 ? 1 : (double) done / total);
+        if (!cancelButton.isDisabled()) {
+            statusLabel.setText(status);
+        }
+    }
+
+    public void close() {
+        stage.close();
+    }
+}
@@ -0,0 +1,30 @@
+package com.sampath.pdfviewer;
+
+/**
+ * Entry point of the jar. Batch commands ({@code render}, {@code text},
+ * {@code search}, {@code thumbs}) run headless through {@link BatchCli};
+ * anything else, e.g. a PDF path, opens the viewer.
+ *
+ * Kept apart from {@link CleanView} because the Java launcher refuses to
+ * start a JavaFX Application subclass from a plain jar, and so the batch
+ * commands never load JavaFX at all.
+ */
+public final class Launcher {
+
+    private Launcher() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 0 && BatchCli.isCommand(args[0])) {
+            System.exit(BatchCli.run(args));
+        }
+        try {
+            CleanView.main(args);
+        } catch (LinkageError ex) {
+            // No JavaFX on the class path, e.g. a server: the batch commands still work
+            System.err.println("The viewer needs JavaFX, which is not available (" + ex + ").");
+            System.err.println(BatchCli.usage());
+            System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.sampath.pdfviewer;
+
+import org.apache.pdfbox.io.RandomAccessRead;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Read-only PDFBox source backed by memory-mapped segments of the file.
+ *
+ * The operating system pages the file in and out on demand, so even a
+ * multi-gigabyte PDF costs no heap to read. Files larger than one mapping
+ * allows are split into 1 GB segments.
+ */
+public class MappedRandomAccessRead implements RandomAccessRead {
+
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+
+    private final long length;
+    private MappedByteBuffer[] segments;
+    private long position = 0;
+
+    public MappedRandomAccessRead(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            length = channel.size();
+            int count = (int) ((length + SEGMENT_SIZE - 1) >> SEGMENT_BITS);
+            segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long start = (long) i << SEGMENT_BITS;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, length - start));
+            }
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkClosed();
+        if (position >= length)
+            return -1;
+        int b = segments[(int) (position >> SEGMENT_BITS)].get((int) (position & (SEGMENT_SIZE - 1))) & 0xff;
+        position++;
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b) throws IOException {
+        return read(b, 0, b.length);
+    }
+
+    @Override
+    public int read(byte[] b, int offset, int len) throws IOException {
+        checkClosed();
+        if (len == 0)
+            return 0;
+        if (position >= length)
+            return -1;
+        int total = (int) Math.min(len, length - position);
+        int done = 0;
+        while (done < total) {
+            MappedByteBuffer segment = segments[(int) (position >> SEGMENT_BITS)];
+            int inSegment = (int) (position & (SEGMENT_SIZE - 1));
+            int chunk = Math.min(total - done, segment.limit() - inSegment);
+            segment.get(inSegment, b, offset + done, chunk);
+            done += chunk;
+            position += chunk;
+        }
+        return total;
+    }
+
+    @Override
+    public long getPosition() throws IOException {
+        checkClosed();
+        return position;
+    }
+
+    @Override
+    public void seek(long newPosition) throws IOException {
+        checkClosed();
+        if (newPosition < 0)
+            throw new IOException("Invalid position " + newPosition);
+        position = Math.min(newPosition, length);
+    }
+
+    @Override
+    public long length() throws IOException {
+        checkClosed();
+        return length;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return segments == null;
+    }
+
+    @Override
+    public int peek() throws IOException {
+        int b = read();
+        if (b != -1) {
+            position--;
+        }
+        return b;
+    }
+
+    @Override
+    public void rewind(int bytes) throws IOException {
+        checkClosed();
+        position = Math.max(0, position - bytes);
+    }
+
+    @Override
+    public byte[] readFully(int len) throws IOException {
+        byte[] b = new byte[len];
+        if (read(b, 0, len) < len)
+            throw new EOFException("Premature end of file");
+        return b;
+    }
+
+    @Override
+    public boolean isEOF() throws IOException {
+        checkClosed();
+        return position >= length;
+    }
+
+    @Override
+    public int available() throws IOException {
+        checkClosed();
+        return (int) Math.min(length - position, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void close() {
+        segments = null; // the mappings are released once garbage collected
+    }
+
+    private void checkClosed() throws IOException {
+        if (segments == null)
+            throw new IOException("MappedRandomAccessRead already closed");
+    }
+}
@@ -0,0 +1,31 @@
+package com.sampath.pdfviewer;
+
+import javafx.collections.ObservableListBase;
+
+/**
+ * Read-only list of page indices 0..n-1 that stores nothing but its size.
+ *
+ * Lets a ListView virtualize over every page of a document without
+ * building a collection with one element per page.
+ */
+public class PageIndexList extends ObservableListBase<Integer> {
+
+    private final int size;
+
+    public PageIndexList(int size) {
+        this.size = size;
+    }
+
+    @Override
+    public Integer get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Page index " + index + " out of " + size);
+        }
+        return index;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,127 @@
+package com.sampath.pdfviewer;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDPageLabelRange;
+import org.apache.pdfbox.pdmodel.common.PDPageLabels;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.NavigableSet;
+
+/**
+ * Printed page labels ("iv", "A-3", …) from the document catalog.
+ *
+ * Only the label ranges are kept, one entry per range rather than per
+ * page, and each label is computed when a sidebar cell asks for it.
+ * Documents without page labels just number their pages from 1.
+ */
+public class PageLabels {
+
+    private static final PageLabels NONE = new PageLabels(new int[0], new String[0], new String[0], new int[0]);
+
+    private final int[] starts;
+    private final String[] styles;
+    private final String[] prefixes;
+    private final int[] firstNumbers;
+
+    private PageLabels(int[] starts, String[] styles, String[] prefixes, int[] firstNumbers) {
+        this.starts = starts;
+        this.styles = styles;
+        this.prefixes = prefixes;
+        this.firstNumbers = firstNumbers;
+    }
+
+    /** Reads the label ranges of a document; call with the document lock held. */
+    public static PageLabels of(PDDocument document) {
+        try {
+            PDPageLabels labels = document.getDocumentCatalog().getPageLabels();
+            if (labels == null)
+                return NONE;
+            NavigableSet<Integer> indices = labels.getPageIndices();
+            int count = indices.size();
+            int[] starts = new int[count];
+            String[] styles = new String[count];
+            String[] prefixes = new String[count];
+            int[] firstNumbers = new int[count];
+            int i = 0;
+            for (int start : indices) {
+                PDPageLabelRange range = labels.getPageLabelRange(start);
+                starts[i] = start;
+                styles[i] = range.getStyle();
+                prefixes[i] = range.getPrefix() == null ? "" : range.getPrefix();
+                firstNumbers[i] = range.getStart();
+                i++;
+            }
+            return new PageLabels(starts, styles, prefixes, firstNumbers);
+        } catch (IOException | RuntimeException ex) {
+            ex.printStackTrace(); // a broken label tree should not stop the document from opening
+            return NONE;
+        }
+    }
+
+    public static PageLabels none() {
+        return NONE;
+    }
+
+    public boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    /** The label printed on a page, or its 1-based number if the document defines none. */
+    public String labelFor(int pageIndex) {
+        int range = Arrays.binarySearch(starts, pageIndex);
+        if (range < 0) {
+            range = -range - 2; // the range starting before this page
+        }
+        if (range < 0)
+            return String.valueOf(pageIndex + 1);
+
+        int number = firstNumbers[range] + pageIndex - starts[range];
+        String style = styles[range];
+        String numeral;
+        if (style == null) {
+            numeral = ""; // prefix only
+        } else if (style.equals(PDPageLabelRange.STYLE_DECIMAL)) {
+            numeral = String.valueOf(number);
+        } else if (style.equals(PDPageLabelRange.STYLE_ROMAN_UPPER)) {
+            numeral = roman(number);
+        } else if (style.equals(PDPageLabelRange.STYLE_ROMAN_LOWER)) {
+            numeral = roman(number).toLowerCase();
+        } else if (style.equals(PDPageLabelRange.STYLE_LETTERS_UPPER)) {
+            numeral = letters(number);
+        } else if (style.equals(PDPageLabelRange.STYLE_LETTERS_LOWER)) {
+            numeral = letters(number).toLowerCase();
+        } else {
+            numeral = String.valueOf(number);
+        }
+        return prefixes[range] + numeral;
+    }
+
+    private static final int[] ROMAN_VALUES = { 1000, 900, 500, 400, 100, 90, 50, 40, 10, 9, 5, 4, 1 };
+    private static final String[] ROMAN_DIGITS = { "M", "CM", "D", "CD", "C", "XC", "L", "XL", "X", "IX", "V", "IV",
+            "I" };
+
+    private static String roman(int number) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < ROMAN_VALUES.length; i++) {
+            while (number >= ROMAN_VALUES[i]) {
+                sb.append(ROMAN_DIGITS[i]);
+                number -= ROMAN_VALUES[i];
+            }
+        }
+        return sb.toString();
+    }
+
+    // A..Z, then AA..ZZ, AAA..ZZZ and so on, as the PDF spec defines it
+    private static String letters(int number) {
+        if (number < 1)
+            return "";
+        char letter = (char) ('A' + (number - 1) % 26);
+        int repeat = (number - 1) / 26 + 1;
+        StringBuilder sb = new StringBuilder(repeat);
+        for (int i = 0; i < repeat; i++) {
+            sb.append(letter);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,69 @@
+package com.sampath.pdfviewer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders the pages the user is about to reach before they get there.
+ *
+ * Tracks the direction and speed of page steps (wheel, next/previous) and
+ * queues the next few pages in that direction at prefetch priority, so the
+ * visible page is never held up. The faster the user pages, the further
+ * ahead it looks, up to -Dcleanview.prefetch.pages (default 4).
+ */
+public class PagePrefetcher {
+
+    /** Renders one page into the page cache; runs on the render thread. */
+    public interface PageWarmer {
+        void warm(int pageIndex);
+    }
+
+    private static final long IDLE_RESET_NANOS = 1_500_000_000L;
+
+    private final RenderScheduler scheduler;
+    private final int maxAhead;
+    private final AtomicLong generation = new AtomicLong();
+    private int direction = 0;
+    private long lastStepNanos = 0;
+    private double stepsPerSecond = 0;
+
+    public PagePrefetcher(RenderScheduler scheduler) {
+        this.scheduler = scheduler;
+        this.maxAhead = Math.max(1, Integer.getInteger("cleanview.prefetch.pages", 4));
+    }
+
+    /** Called after every single-page step; schedules the pages ahead of it. */
+    public void onStep(int pageIndex, int delta, int pageCount, PageWarmer warmer) {
+        long now = System.nanoTime();
+        int stepDirection = Integer.signum(delta);
+        long elapsed = now - lastStepNanos;
+
+        if (stepDirection != direction || elapsed > IDLE_RESET_NANOS) {
+            stepsPerSecond = 0;
+        } else {
+            double rate = 1_000_000_000.0 / Math.max(elapsed, 1);
+            stepsPerSecond = stepsPerSecond == 0 ? rate : (stepsPerSecond + rate) / 2;
+        }
+        direction = stepDirection;
+        lastStepNanos = now;
+
+        int ahead = (int) Math.min(maxAhead, 1 + Math.round(stepsPerSecond));
+        stop();
+        final long ticket = generation.get();
+        for (int i = 1; i <= ahead; i++) {
+            int target = pageIndex + direction * i;
+            if (target < 0 || target >= pageCount)
+                break;
+            scheduler.submit(RenderScheduler.PRIORITY_PREFETCH, () -> {
+                if (generation.get() == ticket) {
+                    warmer.warm(target);
+                }
+            });
+        }
+    }
+
+    /** Drops all pending prefetches, e.g. when the user jumps to a distant page. */
+    public void stop() {
+        generation.incrementAndGet();
+        scheduler.cancelAll(RenderScheduler.PRIORITY_PREFETCH);
+    }
+}
@@ -0,0 +1,59 @@
+package com.sampath.pdfviewer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Page range input shared by the print and export dialogs and the command
+ * line. Pages are 0-based indices; users type 1-based numbers.
+ */
+public final class PageRanges {
+
+    private PageRanges() {
+    }
+
+    public static List<Integer> all(int count) {
+        List<Integer> pages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            pages.add(i);
+        return pages;
+    }
+
+    /**
+     * Parses "1-3,5" style input into 0-based page indices, clamped to the
+     * document. Throws IllegalArgumentException, with a message fit for the
+     * user, if the input is malformed or the document has no pages.
+     */
+    public static List<Integer> parse(String input, int total) {
+        if (total <= 0)
+            throw new IllegalArgumentException("The document has no pages");
+        List<Integer> pages = new ArrayList<>();
+        for (String part : input.trim().split(",")) {
+            if (part.contains("-")) {
+                String[] range = part.split("-", -1);
+                if (range.length != 2)
+                    throw new IllegalArgumentException("Invalid page range: " + part.trim());
+                int first = number(range[0]);
+                int last = number(range[1]);
+                if (first > last)
+                    throw new IllegalArgumentException("Page range runs backwards: " + part.trim());
+                int start = Math.max(0, first - 1);
+                int end = Math.min(total - 1, last - 1);
+                for (int i = start; i <= end; i++)
+                    pages.add(i);
+            } else {
+                int index = Math.max(0, Math.min(total - 1, number(part) - 1));
+                pages.add(index);
+            }
+        }
+        return pages;
+    }
+
+    private static int number(String text) {
+        try {
+            return Integer.parseInt(text.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid page number: \"" + text.trim() + "\" (use e.g. 1-3,5)");
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.sampath.pdfviewer;
+
+import java.util.List;
+
+/**
+ * Text of one page together with the box of every glyph that produced it.
+ *
+ * Glyph boxes are kept in PDF user-space units (1/72 inch, origin at the
+ * top-left of the displayed page) in parallel float arrays, so they can be
+ * scaled to any zoom at draw time. {@code charGlyph[i]} maps character i of
+ * the text to its glyph, or -1 for the word and line separators the
+ * extractor inserted. Pages extracted for the search index only carry
+ * their text and no glyphs.
+ */
+public class PageText {
+
+    private final int pageIndex;
+    private final float pageWidth;
+    private final float pageHeight;
+    private final String text;
+    private final int[] charGlyph;
+    private final float[] glyphX;
+    private final float[] glyphY;
+    private final float[] glyphWidth;
+    private final float[] glyphHeight;
+
+    public PageText(int pageIndex, float pageWidth, float pageHeight, String text, int[] charGlyph, float[] glyphX,
+            float[] glyphY, float[] glyphWidth, float[] glyphHeight) {
+        this.pageIndex = pageIndex;
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+        this.text = text;
+        this.charGlyph = charGlyph;
+        this.glyphX = glyphX;
+        this.glyphY = glyphY;
+        this.glyphWidth = glyphWidth;
+        this.glyphHeight = glyphHeight;
+    }
+
+    public static PageText empty(int pageIndex) {
+        return new PageText(pageIndex, 0, 0, "", new int[0], new float[0], new float[0], new float[0], new float[0]);
+    }
+
+    public int getPageIndex() {
+        return pageIndex;
+    }
+
+    /** Displayed page width in points. */
+    public float getPageWidth() {
+        return pageWidth;
+    }
+
+    public float getPageHeight() {
+        return pageHeight;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public int getGlyphCount() {
+        return glyphX.length;
+    }
+
+    /** Glyph index of a character of {@link #getText()}, or -1 for inserted separators. */
+    public int glyphAt(int charIndex) {
+        return charGlyph[charIndex];
+    }
+
+    public float glyphX(int glyph) {
+        return glyphX[glyph];
+    }
+
+    /** Top edge of the glyph box. */
+    public float glyphY(int glyph) {
+        return glyphY[glyph];
+    }
+
+    public float glyphWidth(int glyph) {
+        return glyphWidth[glyph];
+    }
+
+    public float glyphHeight(int glyph) {
+        return glyphHeight[glyph];
+    }
+
+    /**
+     * Adds the boxes covering characters start..end-1 of the text to {@code out},
+     * one box per line they run across, tagged with the query term they matched
+     * and the number of the match on the page.
+     * Boxes are fractions of the page size, so they can be drawn over the page
+     * at any zoom.
+     */
+    public void addBoxes(int start, int end, int term, int match, List<HighlightBox> out) {
+        if (pageWidth <= 0 || pageHeight <= 0 || charGlyph.length < end)
+            return; // text-only page
+        float left = 0, top = 0, right = 0, bottom = 0;
+        boolean open = false;
+        int lastGlyph = -1;
+        for (int i = start; i < end; i++) {
+            int g = charGlyph[i];
+            if (g < 0 || g == lastGlyph)
+                continue; // separators have no box, ligatures share one
+            lastGlyph = g;
+            float x = glyphX[g], y = glyphY[g];
+            if (open && (x < left || y >= bottom || y + glyphHeight[g] <= top)) {
+                out.add(box(left, top, right, bottom, term, match)); // wrapped onto the next line
+                open = false;
+            }
+            if (!open) {
+                left = x;
+                top = y;
+                right = x + glyphWidth[g];
+                bottom = y + glyphHeight[g];
+                open = true;
+            } else {
+                top = Math.min(top, y);
+                right = Math.max(right, x + glyphWidth[g]);
+                bottom = Math.max(bottom, y + glyphHeight[g]);
+            }
+        }
+        if (open) {
+            out.add(box(left, top, right, bottom, term, match));
+        }
+    }
+
+    private HighlightBox box(float left, float top, float right, float bottom, int term, int match) {
+        return new HighlightBox(left / pageWidth, top / pageHeight, (right - left) / pageWidth,
+                (bottom - top) / pageHeight, term, match);
+    }
+}
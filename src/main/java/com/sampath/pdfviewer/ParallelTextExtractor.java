@@ -0,0 +1,269 @@
+package com.sampath.pdfviewer;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Extracts page text and glyph boxes on all cores.
+ *
+ * PDDocument and PDFTextStripper are not thread-safe, so every worker opens
+ * its own PDDocument on the same file and claims small chunks of the page
+ * range until it is used up. Results are handed to the sink strictly in page
+ * order, whatever order the workers finish in. Worker count comes from
+ * -Dcleanview.workers (default: number of cores). Text is read in
+ * reading order by position, so pages and text drawn at an angle come out
+ * as whole words and lines.
+ */
+public class ParallelTextExtractor {
+
+    /** Receives extracted pages in ascending page order, one call at a time. */
+    public interface PageSink {
+        void accept(PageText page);
+    }
+
+    private static final int CHUNK_SIZE = 8;
+
+    private final File file;
+    private final int workers;
+    private volatile boolean cancelled = false;
+    private volatile boolean paused = false;
+    private volatile boolean collectGlyphs = true;
+    private final Object pauseLock = new Object();
+
+    public ParallelTextExtractor(File file, int workers) {
+        this.file = file;
+        this.workers = Math.max(1, workers);
+    }
+
+    public static int defaultWorkers() {
+        return Math.max(1, Integer.getInteger("cleanview.workers", Runtime.getRuntime().availableProcessors()));
+    }
+
+    public void cancel() {
+        cancelled = true;
+        setPaused(false);
+    }
+
+    /** Holds the workers between pages, e.g. while the document's tab is in the background. */
+    public void setPaused(boolean paused) {
+        synchronized (pauseLock) {
+            this.paused = paused;
+            pauseLock.notifyAll();
+        }
+    }
+
+    private void awaitResume() throws InterruptedException {
+        synchronized (pauseLock) {
+            while (paused && !cancelled) {
+                pauseLock.wait();
+            }
+        }
+    }
+
+    /** Extracts text only, without glyph boxes, e.g. for the search index; set before extracting. */
+    public void setCollectGlyphs(boolean collectGlyphs) {
+        this.collectGlyphs = collectGlyphs;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /** Runs {@link #extract} on a background thread and calls {@code onDone} when it ends. */
+    public void extractAsync(int firstPage, int lastPage, PageSink sink, Runnable onDone) {
+        Thread thread = new Thread(() -> {
+            try {
+                extract(firstPage, lastPage, sink);
+            } catch (Exception ex) {
+                ex.printStackTrace();
+            } finally {
+                onDone.run();
+            }
+        }, "cleanview-text-extract");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Extracts pages firstPage..lastPage (0-based, inclusive), blocking until done or cancelled. */
+    public void extract(int firstPage, int lastPage, PageSink sink) throws IOException, InterruptedException {
+        if (lastPage < firstPage)
+            return;
+
+        int chunks = (lastPage - firstPage) / CHUNK_SIZE + 1;
+        int threads = Math.min(workers, chunks);
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "cleanview-text-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        AtomicInteger nextChunk = new AtomicInteger(firstPage);
+        OrderedMerger merger = new OrderedMerger(firstPage, sink);
+        List<Future<Void>> results = new ArrayList<>();
+        for (int w = 0; w < threads; w++) {
+            results.add(pool.submit((Callable<Void>) () -> {
+                try (PDDocument doc = DocumentLoader.load(file)) {
+                    GlyphCollector collector = new GlyphCollector(collectGlyphs);
+                    int start;
+                    while (!cancelled && (start = nextChunk.getAndAdd(CHUNK_SIZE)) <= lastPage) {
+                        int end = Math.min(lastPage, start + CHUNK_SIZE - 1);
+                        for (int page = start; page <= end && !cancelled; page++) {
+                            awaitResume();
+                            PageText text;
+                            try {
+                                text = collector.extract(doc, page);
+                            } catch (IOException ex) {
+                                ex.printStackTrace();
+                                text = PageText.empty(page); // a broken page must not stall the merge
+                            }
+                            merger.offer(text);
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+
+        try {
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } catch (ExecutionException ex) {
+            cancelled = true;
+            throw new IOException("Text extraction failed", ex.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Extracts a single page from a document the caller already has open (and locked). */
+    public static PageText extractPage(PDDocument doc, int pageIndex) throws IOException {
+        return new GlyphCollector(true).extract(doc, pageIndex);
+    }
+
+    /** Buffers out-of-order pages and releases them to the sink in page order. */
+    private static final class OrderedMerger {
+        private final Map<Integer, PageText> waiting = new HashMap<>();
+        private final PageSink sink;
+        private int next;
+
+        OrderedMerger(int firstPage, PageSink sink) {
+            this.next = firstPage;
+            this.sink = sink;
+        }
+
+        synchronized void offer(PageText page) {
+            waiting.put(page.getPageIndex(), page);
+            PageText ready;
+            while ((ready = waiting.remove(next)) != null) {
+                sink.accept(ready);
+                next++;
+            }
+        }
+    }
+
+    /** Text stripper that records one glyph box per character it writes, unless told to keep text only. */
+    private static final class GlyphCollector extends PDFTextStripper {
+        private final boolean collectGlyphs;
+        private final StringBuilder text = new StringBuilder();
+        private int[] charGlyph = new int[256];
+        private float[] x = new float[256];
+        private float[] y = new float[256];
+        private float[] width = new float[256];
+        private float[] height = new float[256];
+        private int glyphs = 0;
+
+        GlyphCollector(boolean collectGlyphs) throws IOException {
+            super();
+            this.collectGlyphs = collectGlyphs;
+            // Content order breaks words apart on rotated pages; position order follows each glyph's direction
+            setSortByPosition(true);
+        }
+
+        PageText extract(PDDocument doc, int pageIndex) throws IOException {
+            text.setLength(0);
+            glyphs = 0;
+            setStartPage(pageIndex + 1);
+            setEndPage(pageIndex + 1);
+            getText(doc);
+
+            PDPage page = doc.getPage(pageIndex);
+            PDRectangle cropBox = page.getCropBox();
+            boolean turned = page.getRotation() == 90 || page.getRotation() == 270;
+            float pageWidth = turned ? cropBox.getHeight() : cropBox.getWidth();
+            float pageHeight = turned ? cropBox.getWidth() : cropBox.getHeight();
+            if (!collectGlyphs)
+                return new PageText(pageIndex, pageWidth, pageHeight, text.toString(), new int[0], new float[0],
+                        new float[0], new float[0], new float[0]);
+            return new PageText(pageIndex, pageWidth, pageHeight, text.toString(), Arrays.copyOf(charGlyph, text.length()),
+                    Arrays.copyOf(x, glyphs), Arrays.copyOf(y, glyphs), Arrays.copyOf(width, glyphs),
+                    Arrays.copyOf(height, glyphs));
+        }
+
+        @Override
+        protected void writeString(String string, List<TextPosition> textPositions) throws IOException {
+            for (TextPosition tp : textPositions) {
+                int glyph = collectGlyphs ? addGlyph(tp) : -1;
+                String unicode = tp.getUnicode();
+                for (int i = 0; i < unicode.length(); i++) {
+                    append(unicode.charAt(i), glyph);
+                }
+            }
+        }
+
+        @Override
+        protected void writeWordSeparator() throws IOException {
+            append(' ', -1);
+        }
+
+        @Override
+        protected void writeLineSeparator() throws IOException {
+            append('\n', -1);
+        }
+
+        private int addGlyph(TextPosition tp) {
+            if (glyphs == x.length) {
+                int size = glyphs * 2;
+                x = Arrays.copyOf(x, size);
+                y = Arrays.copyOf(y, size);
+                width = Arrays.copyOf(width, size);
+                height = Arrays.copyOf(height, size);
+            }
+            float h = tp.getHeightDir();
+            x[glyphs] = tp.getXDirAdj();
+            y[glyphs] = tp.getYDirAdj() - h; // YDirAdj is the baseline, store the top edge
+            width[glyphs] = tp.getWidthDirAdj();
+            height[glyphs] = h;
+            return glyphs++;
+        }
+
+        private void append(char c, int glyph) {
+            if (!collectGlyphs) {
+                text.append(c);
+                return;
+            }
+            if (text.length() == charGlyph.length) {
+                charGlyph = Arrays.copyOf(charGlyph, charGlyph.length * 2);
+            }
+            charGlyph[text.length()] = glyph;
+            text.append(c);
+        }
+    }
+}
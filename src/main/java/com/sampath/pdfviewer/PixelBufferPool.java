@@ -0,0 +1,215 @@
+package com.sampath.pdfviewer;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Renders pages straight into the pixels JavaFX displays.
+ *
+ * Each image is backed by one int[] that is both the raster of an AWT
+ * image PDFBox draws into and the IntBuffer of a JavaFX PixelBuffer, so
+ * nothing is copied between rendering and the screen. Grayscale and black
+ * & white pages are reduced in place in one pass over the array.
+ *
+ * Every holder of an image (the page cache, an {@link ImageView}, a job on
+ * its way to the screen) owns one reference, taken with {@link #retain} and
+ * dropped with {@link #release}. When the last one is dropped the array is
+ * reused for the next bitmap of the same size, keeping up to
+ * -Dcleanview.pixelpool.mb (default 128) of them around.
+ */
+public class PixelBufferPool {
+
+    /** Draws into a freshly cleared white bitmap. */
+    public interface Painter {
+        void paint(Graphics2D g) throws IOException;
+    }
+
+    // int ARGB, premultiplied: the layout both Java2D and JavaFX handle natively
+    private static final DirectColorModel COLOR_MODEL = new DirectColorModel(
+            java.awt.color.ColorSpace.getInstance(java.awt.color.ColorSpace.CS_sRGB), 32,
+            0x00ff0000, 0x0000ff00, 0x000000ff, 0xff000000, true, DataBuffer.TYPE_INT);
+
+    /** A JavaFX image that shares its pixels with an AWT image. */
+    public static final class PooledImage extends WritableImage {
+        private final int[] pixels;
+        private final BufferedImage awtImage;
+        private int references = 1; // the creator's; guarded by the pool
+
+        private PooledImage(int width, int height, int[] pixels) {
+            super(new PixelBuffer<>(width, height, IntBuffer.wrap(pixels), PixelFormat.getIntArgbPreInstance()));
+            this.pixels = pixels;
+            WritableRaster raster = Raster.createPackedRaster(new DataBufferInt(pixels, width * height), width,
+                    height, width, COLOR_MODEL.getMasks(), null);
+            this.awtImage = new BufferedImage(COLOR_MODEL, raster, true, null);
+        }
+
+        /** The same pixels as an AWT image, e.g. for writing to disk. */
+        public BufferedImage getAwtImage() {
+            return awtImage;
+        }
+    }
+
+    private final Map<Integer, ArrayDeque<int[]>> free = new HashMap<>();
+    private final long budgetBytes;
+    private long pooledBytes = 0;
+    private long reused = 0;
+    private long allocated = 0;
+
+    public PixelBufferPool(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /** Budget from -Dcleanview.pixelpool.mb, defaulting to 128 MB. */
+    public static PixelBufferPool fromSystemProperties() {
+        long mb = Long.getLong("cleanview.pixelpool.mb", 128);
+        return new PixelBufferPool(Math.max(0, mb) * 1024 * 1024);
+    }
+
+    /** Renders a whole page at the given DPI, sized exactly like PDFRenderer.renderImageWithDPI. */
+    public PooledImage render(PDFRenderer renderer, PDDocument document, int pageIndex, float dpi,
+            ColorMode colorMode) throws IOException {
+        float scale = dpi / 72f;
+        PDPage page = document.getPage(pageIndex);
+        PDRectangle cropBox = page.getCropBox();
+        int width = (int) Math.max(Math.floor(cropBox.getWidth() * scale), 1);
+        int height = (int) Math.max(Math.floor(cropBox.getHeight() * scale), 1);
+        if ((long) width * height > Integer.MAX_VALUE)
+            throw new IOException("Page " + (pageIndex + 1) + " is too large to render at " + dpi + " DPI");
+        int rotation = page.getRotation();
+        if (rotation == 90 || rotation == 270) {
+            int swap = width;
+            width = height;
+            height = swap;
+        }
+        return paint(width, height, colorMode, g -> renderer.renderPageToGraphics(pageIndex, g, scale));
+    }
+
+    /** Converts an image read from elsewhere (e.g. the disk cache) with a single draw. */
+    public PooledImage copyOf(BufferedImage source) throws IOException {
+        return paint(source.getWidth(), source.getHeight(), ColorMode.COLOR, g -> g.drawImage(source, 0, 0, null));
+    }
+
+    public PooledImage paint(int width, int height, ColorMode colorMode, Painter painter) throws IOException {
+        PooledImage image = new PooledImage(width, height, take(width * height));
+        paintInto(image.awtImage, painter);
+        if (colorMode != ColorMode.COLOR) {
+            reduce(image.pixels, width * height, colorMode == ColorMode.MONOCHROME);
+        }
+        return image;
+    }
+
+    // One pass over the opaque pixels in place; Java2D has no fast loops for drawing into 1-bit rasters
+    private static void reduce(int[] pixels, int length, boolean threshold) {
+        for (int i = 0; i < length; i++) {
+            int p = pixels[i];
+            int luma = (((p >> 16) & 0xff) * 77 + ((p >> 8) & 0xff) * 150 + (p & 0xff) * 29) >> 8;
+            if (threshold) {
+                luma = ~((luma - 128) >> 31) & 0xff; // 0 below the midpoint, 255 from it, without a branch
+            }
+            pixels[i] = 0xff000000 | luma * 0x010101;
+        }
+    }
+
+    private static void paintInto(BufferedImage target, Painter painter) throws IOException {
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setBackground(java.awt.Color.WHITE);
+            g.clearRect(0, 0, target.getWidth(), target.getHeight());
+            painter.paint(g);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /**
+     * Takes another reference to an image. Returns false if its pixels were
+     * already handed back, e.g. evicted from the cache between a lookup and
+     * this call; the caller must then treat the image as missing. Images not
+     * made by this pool are always kept.
+     */
+    public boolean retain(Image image) {
+        if (!(image instanceof PooledImage))
+            return true;
+        PooledImage pooled = (PooledImage) image;
+        synchronized (this) {
+            if (pooled.references == 0)
+                return false;
+            pooled.references++;
+            return true;
+        }
+    }
+
+    /**
+     * Drops one reference to an image; the last one hands its pixels back
+     * for reuse. Images not made by this pool are ignored.
+     */
+    public void release(Image image) {
+        if (!(image instanceof PooledImage))
+            return;
+        PooledImage pooled = (PooledImage) image;
+        int[] pixels = pooled.pixels;
+        long size = pixels.length * 4L;
+        synchronized (this) {
+            if (pooled.references == 0)
+                return; // already handed back, must not be shared by two images
+            if (--pooled.references > 0)
+                return;
+            if (pooledBytes + size > budgetBytes)
+                return; // let the GC have it
+            free.computeIfAbsent(pixels.length, n -> new ArrayDeque<>()).push(pixels);
+            pooledBytes += size;
+        }
+    }
+
+    /** Makes the view hold a reference to whatever image it shows, for as long as it shows it. */
+    public void track(ImageView view) {
+        retain(view.getImage());
+        view.imageProperty().addListener((obs, oldImage, newImage) -> {
+            if (newImage != null) {
+                retain(newImage);
+            }
+            if (oldImage != null) {
+                release(oldImage);
+            }
+        });
+    }
+
+    private int[] take(int length) {
+        synchronized (this) {
+            ArrayDeque<int[]> arrays = free.get(length);
+            if (arrays != null && !arrays.isEmpty()) {
+                pooledBytes -= length * 4L;
+                reused++;
+                return arrays.pop();
+            }
+            allocated++;
+        }
+        return new int[length];
+    }
+
+    /** Short metrics line for the status bar. */
+    public synchronized String summary() {
+        return String.format("Pixels: %d reused, %d allocated, %d MB pooled", reused, allocated,
+                pooledBytes / (1024 * 1024));
+    }
+}
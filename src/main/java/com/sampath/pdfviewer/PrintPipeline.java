@@ -0,0 +1,145 @@
+package com.sampath.pdfviewer;
+
+import javafx.print.PageLayout;
+import javafx.print.PrinterJob;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Raster print job that renders and spools at the same time.
+ *
+ * One thread renders pages into a small bounded queue while another hands
+ * them to the printer, so page N+1 renders while page N spools and at most
+ * -Dcleanview.print.inflight (default 3) rendered pages are held at once.
+ * Every page is rendered once; extra copies are left to the printer.
+ */
+public class PrintPipeline {
+
+    /** Renders one page for printing; runs on the pipeline's render thread. */
+    public interface PageRenderer {
+        Image render(int pageIndex) throws Exception;
+
+        /** Called on the spool thread once a page has been printed or dropped. */
+        default void release(Image image) {
+        }
+    }
+
+    /** Progress callbacks; called from the spool thread. */
+    public interface Listener {
+        void pageSpooled(int done, int total);
+
+        void finished(boolean completed);
+    }
+
+    // Queue markers: no more pages, and a page that could not be rendered
+    private static final Image END = new WritableImage(1, 1);
+    private static final Image FAILED = new WritableImage(1, 1);
+
+    private final PrinterJob job;
+    private final PageLayout layout;
+    private final List<Integer> pages;
+    private final PageRenderer renderer;
+    private final BlockingQueue<Image> queue;
+    private volatile boolean cancelled = false;
+
+    public PrintPipeline(PrinterJob job, PageLayout layout, List<Integer> pages, PageRenderer renderer) {
+        this.job = job;
+        this.layout = layout;
+        this.pages = pages;
+        this.renderer = renderer;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, Integer.getInteger("cleanview.print.inflight", 3)));
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public void start(Listener listener) {
+        Thread render = new Thread(this::renderPages, "cleanview-print-render");
+        render.setDaemon(true);
+        Thread spool = new Thread(() -> spoolPages(listener), "cleanview-print-spool");
+        spool.setDaemon(true);
+        render.start();
+        spool.start();
+    }
+
+    private void renderPages() {
+        try {
+            for (int pageIndex : pages) {
+                if (cancelled)
+                    break;
+                Image image = null;
+                try {
+                    image = renderer.render(pageIndex);
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                    System.out.println("Failed to render page " + (pageIndex + 1) + " for printing");
+                }
+                Image item = image != null ? image : FAILED;
+                // Blocks while the printer is behind, which is what caps memory
+                while (!cancelled && !queue.offer(item, 200, TimeUnit.MILLISECONDS)) {
+                    // keep waiting, checking for cancel now and then
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            putEnd();
+        }
+    }
+
+    private void putEnd() {
+        try {
+            while (!queue.offer(END, 200, TimeUnit.MILLISECONDS)) {
+                queue.poll(); // the spooler stopped taking pages, make room for the end marker
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void spoolPages(Listener listener) {
+        int done = 0;
+        boolean completed = false;
+        try {
+            while (true) {
+                Image image = queue.take();
+                if (image == END) {
+                    completed = !cancelled;
+                    break;
+                }
+                if (cancelled) {
+                    renderer.release(image);
+                    continue; // drain until the renderer notices
+                }
+                if (image != FAILED) {
+                    ImageView view = new ImageView(image);
+                    view.setPreserveRatio(true);
+                    view.setFitWidth(layout.getPrintableWidth());
+                    if (!job.printPage(layout, view)) {
+                        System.out.println("Failed to print page " + (pages.get(done) + 1));
+                    }
+                    renderer.release(image);
+                }
+                done++;
+                listener.pageSpooled(done, pages.size());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            cancelled = !completed; // stops the renderer if spooling died early
+            if (completed) {
+                job.endJob();
+            } else {
+                job.cancelJob();
+            }
+            listener.finished(completed);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.sampath.pdfviewer;
+
+import javafx.scene.image.Image;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * LRU cache of rendered pages, bounded by memory rather than entry count.
+ *
+ * One 600 DPI A3 page alone is over 100 MB, so the budget is expressed in
+ * bytes (4 bytes per pixel) and the least recently shown pages are evicted
+ * until the new page fits. Pages of documents in background tabs go before
+ * any page of the document on screen. Safe to use from the FX and render
+ * threads. The cache owns one reference to every bitmap put into it and
+ * passes each bitmap that leaves to the eviction listener, which drops that
+ * reference so the pixels can be reused.
+ */
+public class RenderCache {
+
+    /** Identifies one rendered bitmap: which document, page, resolution and colour mode. */
+    public static final class Key {
+        final int documentId;
+        final int pageIndex;
+        final float dpi;
+        final ColorMode colorMode;
+
+        public Key(int documentId, int pageIndex, float dpi, ColorMode colorMode) {
+            this.documentId = documentId;
+            this.pageIndex = pageIndex;
+            this.dpi = dpi;
+            this.colorMode = colorMode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key other = (Key) o;
+            return documentId == other.documentId && pageIndex == other.pageIndex
+                    && Float.compare(dpi, other.dpi) == 0 && colorMode == other.colorMode;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(documentId, pageIndex, dpi, colorMode);
+        }
+    }
+
+    private final LinkedHashMap<Key, Image> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final long budgetBytes;
+    private long usedBytes = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private int activeDocumentId = -1;
+    private Consumer<Image> onEvicted = image -> {
+    };
+
+    public RenderCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /** Budget from -Dcleanview.cache.mb, defaulting to 256 MB. */
+    public static RenderCache fromSystemProperties() {
+        long mb = Long.getLong("cleanview.cache.mb", 256);
+        return new RenderCache(Math.max(1, mb) * 1024 * 1024);
+    }
+
+    /** Called, with the cache locked, for every bitmap that leaves the cache. */
+    public synchronized void setOnEvicted(Consumer<Image> listener) {
+        this.onEvicted = listener;
+    }
+
+    public synchronized Image get(Key key) {
+        Image image = entries.get(key);
+        if (image != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return image;
+    }
+
+    /** Checks for a page without touching the hit/miss counters or LRU order. */
+    public synchronized boolean contains(Key key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Finds the sharpest cached render of a page below the given DPI, for use as
+     * a stand-in while the real page renders. Does not count as a hit or miss.
+     */
+    public synchronized Map.Entry<Key, Image> bestBelow(int documentId, int pageIndex, float dpi, ColorMode colorMode) {
+        Map.Entry<Key, Image> best = null;
+        for (Map.Entry<Key, Image> entry : entries.entrySet()) {
+            Key key = entry.getKey();
+            if (key.documentId == documentId && key.pageIndex == pageIndex && key.colorMode == colorMode
+                    && key.dpi < dpi && (best == null || key.dpi > best.getKey().dpi)) {
+                best = entry;
+            }
+        }
+        return best == null ? null : new AbstractMap.SimpleImmutableEntry<>(best.getKey(), best.getValue());
+    }
+
+    /** Takes over one reference to the image; a bitmap that can never fit goes straight to the eviction listener. */
+    public synchronized void put(Key key, Image image) {
+        long size = sizeOf(image);
+        if (size > budgetBytes) {
+            onEvicted.accept(image); // would evict everything and still not fit
+            return;
+        }
+
+        Image previous = entries.remove(key);
+        if (previous != null) {
+            usedBytes -= sizeOf(previous);
+            onEvicted.accept(previous); // the reference the old entry held, even if it is the same bitmap
+        }
+
+        evict(usedBytes + size - budgetBytes, true);
+        evict(usedBytes + size - budgetBytes, false);
+
+        entries.put(key, image);
+        usedBytes += size;
+    }
+
+    /** Marks the document on screen; its pages are evicted only once no other document has any left. */
+    public synchronized void setActiveDocument(int documentId) {
+        activeDocumentId = documentId;
+    }
+
+    // Frees at least the given number of bytes, least recently used first
+    private void evict(long bytes, boolean hiddenOnly) {
+        Iterator<Map.Entry<Key, Image>> it = entries.entrySet().iterator();
+        while (bytes > 0 && it.hasNext()) {
+            Map.Entry<Key, Image> entry = it.next();
+            if (hiddenOnly && entry.getKey().documentId == activeDocumentId)
+                continue;
+            long size = sizeOf(entry.getValue());
+            usedBytes -= size;
+            bytes -= size;
+            it.remove();
+            evictions++;
+            onEvicted.accept(entry.getValue());
+        }
+    }
+
+    /** Drops every page of a document, e.g. when it is closed. */
+    public synchronized void invalidateDocument(int documentId) {
+        Iterator<Map.Entry<Key, Image>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, Image> entry = it.next();
+            if (entry.getKey().documentId == documentId) {
+                usedBytes -= sizeOf(entry.getValue());
+                it.remove();
+                onEvicted.accept(entry.getValue());
+            }
+        }
+    }
+
+    /** Short metrics line for the status bar. */
+    public synchronized String summary() {
+        return String.format("Cache: %d pages, %d/%d MB, %d hits, %d evicted",
+                entries.size(), usedBytes / (1024 * 1024), budgetBytes / (1024 * 1024), hits, evictions);
+    }
+
+    private static long sizeOf(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4L;
+    }
+}
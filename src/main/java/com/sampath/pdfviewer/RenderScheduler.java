@@ -0,0 +1,110 @@
+package com.sampath.pdfviewer;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background worker that owns page rendering for the viewer.
+ *
+ * Every page request gets a ticket. Only the newest ticket is allowed to
+ * reach the screen, so requests that were overtaken while the user kept
+ * scrolling are dropped before (or after) they render.
+ *
+ * Work is queued by priority: the visible page always runs before
+ * sidebar thumbnails, which run before speculative work such as
+ * prefetching neighbouring pages.
+ */
+public class RenderScheduler {
+
+    public static final int PRIORITY_VISIBLE = 0;
+    public static final int PRIORITY_TILES = 1;
+    public static final int PRIORITY_THUMBNAILS = 5;
+    public static final int PRIORITY_PREFETCH = 10;
+
+    private final ThreadPoolExecutor executor;
+    private final PriorityBlockingQueue<Runnable> queue = new PriorityBlockingQueue<>();
+    private final AtomicLong latestTicket = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+    private Job pendingPageRender;
+
+    public RenderScheduler(String threadName) {
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, queue, r -> {
+            Thread thread = new Thread(r, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Issues a new ticket, making every earlier ticket stale. */
+    public long newTicket() {
+        return latestTicket.incrementAndGet();
+    }
+
+    public boolean isLatest(long ticket) {
+        return latestTicket.get() == ticket;
+    }
+
+    /** Queues a page render and drops the previous one if it has not started yet. */
+    public synchronized void submitPageRender(Runnable task) {
+        if (pendingPageRender != null) {
+            cancel(pendingPageRender);
+        }
+        pendingPageRender = submit(PRIORITY_VISIBLE, task);
+    }
+
+    /** Queues work at the given priority; lower numbers run first, ties run in order. */
+    public Job submit(int priority, Runnable task) {
+        Job job = new Job(priority, sequence.incrementAndGet(), task);
+        executor.execute(job);
+        return job;
+    }
+
+    public void cancel(Job job) {
+        job.cancelled = true;
+        queue.remove(job);
+    }
+
+    /** Drops every queued job of the given priority that has not started yet. */
+    public void cancelAll(int priority) {
+        for (Runnable r : queue.toArray(new Runnable[0])) {
+            Job job = (Job) r;
+            if (job.priority == priority) {
+                cancel(job);
+            }
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public static final class Job implements Runnable, Comparable<Job> {
+        private final int priority;
+        private final long sequence;
+        private final Runnable task;
+        private volatile boolean cancelled = false;
+
+        private Job(int priority, long sequence, Runnable task) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            if (!cancelled) {
+                task.run();
+            }
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            if (priority != other.priority) {
+                return Integer.compare(priority, other.priority);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
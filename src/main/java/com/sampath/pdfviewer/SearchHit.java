@@ -0,0 +1,52 @@
+package com.sampath.pdfviewer;
+
+/**
+ * One page of find-all results: how many times the query terms occur on it
+ * and a short snippet around the first occurrence.
+ */
+public class SearchHit {
+
+    private static final int SNIPPET_CONTEXT = 30;
+
+    private final int pageIndex;
+    private final int hitCount;
+    private final String snippet;
+
+    public SearchHit(int pageIndex, int hitCount, String snippet) {
+        this.pageIndex = pageIndex;
+        this.hitCount = hitCount;
+        this.snippet = snippet;
+    }
+
+    /** Counts the query's matches in a page's text; null if there are none. */
+    public static SearchHit fromPage(int pageIndex, String pageText, SearchQuery query) {
+        int[] first = { -1, -1 };
+        int[] count = { 0 };
+        query.scan(pageText, (term, start, end) -> {
+            if (count[0]++ == 0) {
+                first[0] = start;
+                first[1] = end;
+            }
+        });
+        if (count[0] == 0)
+            return null;
+
+        int start = Math.max(0, first[0] - SNIPPET_CONTEXT);
+        int end = Math.min(pageText.length(), first[1] + SNIPPET_CONTEXT);
+        String snippet = (start > 0 ? "…" : "") + pageText.substring(start, end).replaceAll("\\s+", " ").trim()
+                + (end < pageText.length() ? "…" : "");
+        return new SearchHit(pageIndex, count[0], snippet);
+    }
+
+    public int getPageIndex() {
+        return pageIndex;
+    }
+
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+}
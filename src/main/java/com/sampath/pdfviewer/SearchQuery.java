@@ -0,0 +1,230 @@
+package com.sampath.pdfviewer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A search box query compiled into one Aho-Corasick automaton.
+ *
+ * Words are separate terms and "quoted text" is a phrase. Matching is
+ * case-insensitive and any run of whitespace in the page text matches a
+ * single space in a phrase, so phrases broken across lines still match.
+ * A page is scanned once for all terms together, without allocating per
+ * character, and every match reports which term it belongs to.
+ */
+public class SearchQuery {
+
+    /** Called for every match; start/end are character offsets in the scanned text. */
+    public interface MatchListener {
+        void onMatch(int term, int start, int end);
+    }
+
+    private final String text;
+    private final String[] terms;
+    private final int maxTermLength;
+
+    // Trie edges of state s are edgeChars/edgeTargets[edgeStart[s] .. edgeStart[s + 1]), sorted by char
+    private final int[] edgeStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    private final int[] fail;
+    private final int[] termAt; // term ending exactly in this state, or -1
+    private final int[] outputLink; // next state on the fail chain that ends a term, or -1
+
+    private SearchQuery(String text, String[] terms) {
+        this.text = text;
+        this.terms = terms;
+
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        ends.add(-1);
+        int longest = 0;
+        for (int t = 0; t < terms.length; t++) {
+            int state = 0;
+            for (int i = 0; i < terms[t].length(); i++) {
+                Integer next = trie.get(state).get(terms[t].charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    ends.add(-1);
+                    trie.get(state).put(terms[t].charAt(i), next);
+                }
+                state = next;
+            }
+            if (ends.get(state) < 0) {
+                ends.set(state, t);
+            }
+            longest = Math.max(longest, terms[t].length());
+        }
+        this.maxTermLength = longest;
+
+        int states = trie.size();
+        edgeStart = new int[states + 1];
+        for (int s = 0; s < states; s++) {
+            edgeStart[s + 1] = edgeStart[s] + trie.get(s).size();
+        }
+        edgeChars = new char[edgeStart[states]];
+        edgeTargets = new int[edgeStart[states]];
+        termAt = new int[states];
+        for (int s = 0; s < states; s++) {
+            int e = edgeStart[s];
+            for (Map.Entry<Character, Integer> edge : trie.get(s).entrySet()) {
+                edgeChars[e] = edge.getKey();
+                edgeTargets[e++] = edge.getValue();
+            }
+            termAt[s] = ends.get(s);
+        }
+
+        // Breadth-first, so every fail target is finished before it is used
+        fail = new int[states];
+        outputLink = new int[states];
+        outputLink[0] = -1;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int e = edgeStart[0]; e < edgeStart[1]; e++) {
+            fail[edgeTargets[e]] = 0;
+            outputLink[edgeTargets[e]] = -1;
+            queue.add(edgeTargets[e]);
+        }
+        while (!queue.isEmpty()) {
+            int s = queue.poll();
+            for (int e = edgeStart[s]; e < edgeStart[s + 1]; e++) {
+                int child = edgeTargets[e];
+                int f = step(fail[s], edgeChars[e]);
+                fail[child] = f;
+                outputLink[child] = termAt[f] >= 0 ? f : outputLink[f];
+                queue.add(child);
+            }
+        }
+    }
+
+    /** Parses the search box text; an empty or blank query has no terms. */
+    public static SearchQuery parse(String query) {
+        List<String> terms = new ArrayList<>();
+        int i = 0;
+        int length = query.length();
+        while (i < length) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '"') {
+                int close = query.indexOf('"', i + 1);
+                int end = close < 0 ? length : close;
+                addTerm(terms, query.substring(i + 1, end));
+                i = end + 1;
+            } else {
+                int start = i;
+                while (i < length && !Character.isWhitespace(query.charAt(i)) && query.charAt(i) != '"')
+                    i++;
+                addTerm(terms, query.substring(start, i));
+            }
+        }
+        return new SearchQuery(query, terms.toArray(new String[0]));
+    }
+
+    private static void addTerm(List<String> terms, String raw) {
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < raw.length(); i++) {
+            char c = normalize(raw.charAt(i));
+            if (c != ' ' || (term.length() > 0 && term.charAt(term.length() - 1) != ' ')) {
+                term.append(c);
+            }
+        }
+        String normalized = term.toString().trim();
+        if (!normalized.isEmpty() && !terms.contains(normalized)) {
+            terms.add(normalized);
+        }
+    }
+
+    // Character-wise and locale-independent, so a Turkish default locale cannot change what matches
+    // and every normalized character still lines up with the one it came from
+    private static char normalize(char c) {
+        return Character.isWhitespace(c) ? ' ' : Character.toLowerCase(c);
+    }
+
+    /** Lower-cases text exactly like query terms and scanned text are, for indexes built ahead of a query. */
+    static String normalize(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = normalize(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    /** The query as typed. */
+    public String getText() {
+        return text;
+    }
+
+    public boolean isEmpty() {
+        return terms.length == 0;
+    }
+
+    public int getTermCount() {
+        return terms.length;
+    }
+
+    /** A term lower-cased and with whitespace collapsed, as it is matched. */
+    public String getTerm(int term) {
+        return terms[term];
+    }
+
+    /** Reports every match of every term in the text, including overlapping ones. */
+    public void scan(CharSequence text, MatchListener listener) {
+        run(text, listener);
+    }
+
+    /** Start offset of the first match found scanning left to right, or -1. */
+    public int find(CharSequence text) {
+        return run(text, null);
+    }
+
+    private int run(CharSequence text, MatchListener listener) {
+        if (terms.length == 0)
+            return -1;
+        // Offsets of the last normalized characters, so a match can be traced back to where it starts
+        int[] recent = new int[maxTermLength];
+        int normalizedCount = 0;
+        int state = 0;
+        char previous = ' ';
+        for (int i = 0; i < text.length(); i++) {
+            char c = normalize(text.charAt(i));
+            if (c == ' ' && previous == ' ')
+                continue; // whitespace runs count as one space
+            previous = c;
+            recent[normalizedCount++ % maxTermLength] = i;
+            state = step(state, c);
+            for (int s = termAt[state] >= 0 ? state : outputLink[state]; s >= 0; s = outputLink[s]) {
+                int term = termAt[s];
+                int start = recent[(normalizedCount - terms[term].length()) % maxTermLength];
+                if (listener == null)
+                    return start;
+                listener.onMatch(term, start, i + 1);
+            }
+        }
+        return -1;
+    }
+
+    private int step(int state, char c) {
+        while (true) {
+            int lo = edgeStart[state];
+            int hi = edgeStart[state + 1] - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (edgeChars[mid] < c) {
+                    lo = mid + 1;
+                } else if (edgeChars[mid] > c) {
+                    hi = mid - 1;
+                } else {
+                    return edgeTargets[mid];
+                }
+            }
+            if (state == 0)
+                return 0;
+            state = fail[state];
+        }
+    }
+}
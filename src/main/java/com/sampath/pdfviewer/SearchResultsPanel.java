@@ -0,0 +1,143 @@
+package com.sampath.pdfviewer;
+
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+
+/**
+ * Side panel listing find-all results as they stream in, with a running
+ * total and previous/next match navigation.
+ */
+public final class SearchResultsPanel extends VBox {
+
+    /** Called with a result page and the match on it (by order on the page) to show. */
+    public interface MatchListener {
+        void matchSelected(int pageIndex, int match);
+    }
+
+    private final ListView<SearchHit> resultList = new ListView<>();
+    private final Label totalLabel = new Label();
+    private int totalHits = 0;
+    private boolean scanning = false;
+    private int currentMatch = 0; // on the selected page
+    private boolean stepping = false; // the selection is being moved by step(), which picks the match
+    private MatchListener onMatchSelected = (page, match) -> {
+    };
+
+    public SearchResultsPanel() {
+        Label title = new Label("Results");
+        title.setStyle("-fx-font-weight: bold; -fx-font-family: 'Segoe UI';");
+        totalLabel.setStyle("-fx-font-size: 11px; -fx-text-fill: #555; -fx-font-family: 'Segoe UI';");
+
+        Button previousButton = new Button("▲");
+        Button nextButton = new Button("▼");
+        previousButton.setOnAction(e -> step(-1));
+        nextButton.setOnAction(e -> step(1));
+
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        HBox header = new HBox(6, title, spacer, previousButton, nextButton);
+        header.setAlignment(Pos.CENTER_LEFT);
+
+        resultList.setCellFactory(list -> new ListCell<SearchHit>() {
+            @Override
+            protected void updateItem(SearchHit hit, boolean empty) {
+                super.updateItem(hit, empty);
+                if (empty || hit == null) {
+                    setText(null);
+                } else {
+                    setText("Page " + (hit.getPageIndex() + 1) + " (" + hit.getHitCount() + ")\n" + hit.getSnippet());
+                }
+            }
+        });
+        resultList.getSelectionModel().selectedItemProperty().addListener((obs, oldHit, hit) -> {
+            if (hit != null && !stepping) {
+                currentMatch = 0;
+                onMatchSelected.matchSelected(hit.getPageIndex(), 0);
+            }
+        });
+        VBox.setVgrow(resultList, Priority.ALWAYS);
+
+        getChildren().addAll(header, totalLabel, resultList);
+        setSpacing(6);
+        setPrefWidth(240);
+        setStyle("-fx-background-color: #ECECEC; -fx-padding: 10; -fx-font-family: 'Segoe UI';");
+    }
+
+    public void setOnMatchSelected(MatchListener listener) {
+        this.onMatchSelected = listener;
+    }
+
+    /** Clears the list for a new query. */
+    public void start() {
+        resultList.getItems().clear();
+        totalHits = 0;
+        scanning = true;
+        updateTotal(0, 0);
+    }
+
+    /** Appends a result while the scan is still running. */
+    public void addHit(SearchHit hit, int scannedPages, int totalPages) {
+        resultList.getItems().add(hit);
+        totalHits += hit.getHitCount();
+        if (resultList.getItems().size() == 1) {
+            resultList.getSelectionModel().select(0); // first hit shows up before the scan finishes
+        }
+        updateTotal(scannedPages, totalPages);
+    }
+
+    public void progress(int scannedPages, int totalPages) {
+        updateTotal(scannedPages, totalPages);
+    }
+
+    public void finish() {
+        scanning = false;
+        updateTotal(0, 0);
+    }
+
+    /**
+     * Moves to the previous (-1) or next (+1) match. Matches on the selected
+     * page come first; the selection only moves on from its first or last one.
+     */
+    public void step(int direction) {
+        int size = resultList.getItems().size();
+        if (size == 0)
+            return;
+        int index = resultList.getSelectionModel().getSelectedIndex();
+        if (index < 0) {
+            index = direction > 0 ? 0 : size - 1;
+            currentMatch = direction > 0 ? 0 : resultList.getItems().get(index).getHitCount() - 1;
+        } else {
+            int match = currentMatch + direction;
+            if (match < 0 || match >= resultList.getItems().get(index).getHitCount()) {
+                if (index + direction < 0 || index + direction >= size)
+                    return; // already at the first or last match
+                index += direction;
+                match = direction > 0 ? 0 : resultList.getItems().get(index).getHitCount() - 1;
+            }
+            currentMatch = match;
+        }
+        stepping = true;
+        try {
+            resultList.getSelectionModel().select(index);
+        } finally {
+            stepping = false;
+        }
+        resultList.scrollTo(index);
+        onMatchSelected.matchSelected(resultList.getItems().get(index).getPageIndex(), currentMatch);
+    }
+
+    private void updateTotal(int scannedPages, int totalPages) {
+        String text = totalHits + " matches on " + resultList.getItems().size() + " pages";
+        if (scanning && totalPages > 0) {
+            text += " (scanning " + scannedPages + "/" + totalPages + ")";
+        }
+        totalLabel.setText(text);
+    }
+}
@@ -0,0 +1,265 @@
+package com.sampath.pdfviewer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Full-text index of one document, built in the background after opening.
+ *
+ * Each page's text is split into whitespace-separated tokens, lower-cased
+ * like query terms. Every distinct token gets an id with (page, position)
+ * postings, and every 1-, 2- and 3-character piece of a token maps to the
+ * ids of the tokens containing it. A word keeps the viewer's "word contains
+ * keyword" behaviour by looking up its rarest 3-character piece and checking
+ * only those tokens, and a phrase is matched by token positions: its first
+ * word must end a token, its last word start the token right after the
+ * middle ones. Neither touches the page text, so lookups stay in the
+ * millisecond range whatever the page count.
+ */
+public class TextIndex {
+
+    private static final int GRAM = 3;
+
+    private final int pageCount;
+    private final String[] pageTexts;
+    private final int[][] pageTokens; // token ids of each page, in reading order
+    private final Map<String, Integer> tokenIds = new HashMap<>();
+    private final List<String> tokens = new ArrayList<>();
+    private final List<IntList> postings = new ArrayList<>(); // by token id: packed (page, position) pairs
+    private final Map<String, IntList> grams = new HashMap<>(); // piece -> ids of the tokens containing it
+    private int indexedPages = 0;
+    private boolean finished = false;
+
+    public TextIndex(int pageCount) {
+        this.pageCount = pageCount;
+        this.pageTexts = new String[pageCount];
+        this.pageTokens = new int[pageCount][];
+    }
+
+    public synchronized void addPage(int pageIndex, String text) {
+        if (pageTexts[pageIndex] != null)
+            return;
+        pageTexts[pageIndex] = text;
+
+        IntList ids = new IntList();
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            while (i < length && Character.isWhitespace(text.charAt(i)))
+                i++;
+            int start = i;
+            while (i < length && !Character.isWhitespace(text.charAt(i)))
+                i++;
+            if (i > start) {
+                int id = tokenId(SearchQuery.normalize(text.substring(start, i)));
+                postings.get(id).add(pageIndex, ids.size);
+                ids.add(id);
+            }
+        }
+        pageTokens[pageIndex] = ids.toArray();
+
+        indexedPages++;
+        notifyAll();
+    }
+
+    private int tokenId(String token) {
+        Integer id = tokenIds.get(token);
+        if (id != null)
+            return id;
+        int newId = tokens.size();
+        tokenIds.put(token, newId);
+        tokens.add(token);
+        postings.add(new IntList());
+        // Pieces shorter than GRAM too, so one- and two-letter words are exact lookups
+        for (int n = 1; n <= GRAM; n++) {
+            for (int start = 0; start + n <= token.length(); start++) {
+                IntList owners = grams.computeIfAbsent(token.substring(start, start + n), k -> new IntList());
+                if (owners.size == 0 || owners.get(owners.size - 1) != newId) {
+                    owners.add(newId); // once per token, however often the piece repeats in it
+                }
+            }
+        }
+        return newId;
+    }
+
+    /** Called by the indexer when it stops, done or cancelled; pages still missing will not arrive. */
+    public synchronized void finish() {
+        finished = true;
+        notifyAll();
+    }
+
+    public synchronized boolean isFinished() {
+        return finished || indexedPages == pageCount;
+    }
+
+    public synchronized boolean isComplete() {
+        return indexedPages == pageCount;
+    }
+
+    public synchronized int getIndexedPages() {
+        return indexedPages;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public synchronized boolean isIndexed(int pageIndex) {
+        return pageTexts[pageIndex] != null;
+    }
+
+    /** Extracted text of a page, or null if it has not been indexed yet. */
+    public synchronized String getPageText(int pageIndex) {
+        return pageTexts[pageIndex];
+    }
+
+    /**
+     * Waits up to timeoutMillis for a page to be indexed, so searches can follow
+     * the indexer page by page. Returns null if the page is not indexed in time
+     * or the indexer has stopped without it.
+     */
+    public synchronized String awaitPageText(int pageIndex, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long left = timeoutMillis;
+        while (pageTexts[pageIndex] == null && !finished && left > 0) {
+            wait(left);
+            left = deadline - System.currentTimeMillis();
+        }
+        return pageTexts[pageIndex];
+    }
+
+    /** Indexed pages whose text contains any of the query's terms, ascending. */
+    public synchronized int[] pagesContaining(SearchQuery query) {
+        BitSet pages = new BitSet(pageCount);
+        for (int t = 0; t < query.getTermCount(); t++) {
+            String[] words = query.getTerm(t).split(" ");
+            if (words.length == 1) {
+                for (int id : tokensContaining(words[0])) {
+                    IntList pairs = postings.get(id);
+                    for (int p = 0; p < pairs.size; p += 2) {
+                        pages.set(pairs.get(p));
+                    }
+                }
+            } else {
+                collectPhrasePages(words, pages);
+            }
+        }
+        return pages.stream().toArray();
+    }
+
+    /** True if an indexed page contains one of the query's terms; pages not indexed yet report true. */
+    public synchronized boolean mayContain(int pageIndex, SearchQuery query) {
+        String text = pageTexts[pageIndex];
+        return text == null || query.find(text) >= 0;
+    }
+
+    // A phrase spans consecutive tokens: the first word ends one, middle words are whole tokens
+    // and the last word starts the next. Walks the postings of the rarest word only.
+    private void collectPhrasePages(String[] words, BitSet pages) {
+        int last = words.length - 1;
+        BitSet[] allowed = new BitSet[words.length];
+        int rarest = -1;
+        int rarestCount = Integer.MAX_VALUE;
+        for (int w = 0; w <= last; w++) {
+            allowed[w] = new BitSet(tokens.size());
+            int count = 0;
+            if (w > 0 && w < last) {
+                Integer id = tokenIds.get(words[w]);
+                if (id != null) {
+                    allowed[w].set(id);
+                    count = postings.get(id).size;
+                }
+            } else {
+                for (int id : tokensContaining(words[w])) {
+                    String token = tokens.get(id);
+                    if (w == 0 ? token.endsWith(words[w]) : token.startsWith(words[w])) {
+                        allowed[w].set(id);
+                        count += postings.get(id).size;
+                    }
+                }
+            }
+            if (count == 0)
+                return;
+            if (count < rarestCount) {
+                rarest = w;
+                rarestCount = count;
+            }
+        }
+
+        for (int id = allowed[rarest].nextSetBit(0); id >= 0; id = allowed[rarest].nextSetBit(id + 1)) {
+            IntList pairs = postings.get(id);
+            for (int p = 0; p < pairs.size; p += 2) {
+                int page = pairs.get(p);
+                int first = pairs.get(p + 1) - rarest;
+                if (!pages.get(page) && phraseAt(pageTokens[page], first, allowed)) {
+                    pages.set(page);
+                }
+            }
+        }
+    }
+
+    private static boolean phraseAt(int[] ids, int first, BitSet[] allowed) {
+        if (first < 0 || first + allowed.length > ids.length)
+            return false;
+        for (int w = 0; w < allowed.length; w++) {
+            if (!allowed[w].get(ids[first + w]))
+                return false;
+        }
+        return true;
+    }
+
+    // Ids of the tokens containing the word, from its rarest piece of up to GRAM characters
+    private int[] tokensContaining(String word) {
+        if (word.length() <= GRAM) {
+            IntList owners = grams.get(word);
+            return owners == null ? new int[0] : owners.toArray();
+        }
+        IntList rarest = null;
+        for (int start = 0; start + GRAM <= word.length(); start++) {
+            IntList owners = grams.get(word.substring(start, start + GRAM));
+            if (owners == null)
+                return new int[0];
+            if (rarest == null || owners.size < rarest.size) {
+                rarest = owners;
+            }
+        }
+        IntList matches = new IntList();
+        for (int i = 0; i < rarest.size; i++) {
+            int id = rarest.get(i);
+            if (tokens.get(id).contains(word)) {
+                matches.add(id);
+            }
+        }
+        return matches.toArray();
+    }
+
+    /** Growable int array, to keep postings free of boxing. */
+    private static final class IntList {
+        private int[] data = new int[2];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        void add(int first, int second) {
+            add(first);
+            add(second);
+        }
+
+        int get(int i) {
+            return data[i];
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
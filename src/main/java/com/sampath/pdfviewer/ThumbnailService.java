@@ -0,0 +1,163 @@
+package com.sampath.pdfviewer;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Renders sidebar thumbnails in the background at their real display size.
+ *
+ * Thumbnails are kept in a small LRU (-Dcleanview.thumbnails.cached,
+ * default 500) so scrolling back up the sidebar is free. Requests for cells
+ * that scroll away before their turn are skipped. Like the page cache, the
+ * service owns one reference to every thumbnail it keeps and passes each
+ * one it drops to the eviction listener.
+ */
+public class ThumbnailService {
+
+    /** Renders one page at the given pixel width; called on the render thread. */
+    public interface ThumbnailRenderer {
+        Thumbnail render(int pageIndex, int width) throws Exception;
+    }
+
+    /** A rendered thumbnail and the DPI it was rendered at. */
+    public static final class Thumbnail {
+        final Image image;
+        final float dpi;
+
+        public Thumbnail(Image image, float dpi) {
+            this.image = image;
+            this.dpi = dpi;
+        }
+
+        public Image getImage() {
+            return image;
+        }
+
+        public float getDpi() {
+            return dpi;
+        }
+    }
+
+    public static final int THUMBNAIL_WIDTH = 80;
+
+    private final RenderScheduler scheduler;
+    private final ThumbnailRenderer renderer;
+    private final int maxEntries;
+    private final Map<Integer, Thumbnail> cache;
+    private final Map<Integer, Request> inFlight = new HashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private Consumer<Image> onEvicted = image -> {
+    };
+
+    public ThumbnailService(RenderScheduler scheduler, ThumbnailRenderer renderer) {
+        this.scheduler = scheduler;
+        this.renderer = renderer;
+        this.maxEntries = Math.max(1, Integer.getInteger("cleanview.thumbnails.cached", 500));
+        this.cache = new LinkedHashMap<Integer, Thumbnail>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Thumbnail> eldest) {
+                if (size() <= maxEntries)
+                    return false;
+                onEvicted.accept(eldest.getValue().image);
+                return true;
+            }
+        };
+    }
+
+    /** Called, with the service locked, for every thumbnail it stops keeping. */
+    public synchronized void setOnEvicted(Consumer<Image> listener) {
+        this.onEvicted = listener;
+    }
+
+    public synchronized Thumbnail get(int pageIndex) {
+        return cache.get(pageIndex);
+    }
+
+    /**
+     * Queues a thumbnail render. {@code stillWanted} is checked just before
+     * rendering so cells that scrolled away cost nothing; {@code onReady} runs
+     * on the FX thread.
+     */
+    public void request(int pageIndex, BooleanSupplier stillWanted, Consumer<Thumbnail> onReady) {
+        final long ticket;
+        synchronized (this) {
+            Request queued = inFlight.get(pageIndex);
+            if (queued != null) {
+                // Already queued for a cell that may have been recycled; hand it to the newest one
+                queued.stillWanted = stillWanted;
+                queued.onReady = onReady;
+                return;
+            }
+            inFlight.put(pageIndex, new Request(stillWanted, onReady));
+            ticket = generation.get();
+        }
+        scheduler.submit(RenderScheduler.PRIORITY_THUMBNAILS, () -> {
+            Request request;
+            synchronized (this) {
+                request = inFlight.get(pageIndex);
+            }
+            Thumbnail thumbnail = null;
+            try {
+                if (generation.get() == ticket && request != null && request.stillWanted.getAsBoolean()) {
+                    thumbnail = renderer.render(pageIndex, THUMBNAIL_WIDTH);
+                }
+            } catch (Exception ex) {
+                ex.printStackTrace();
+            }
+
+            synchronized (this) {
+                if (generation.get() != ticket) {
+                    if (thumbnail != null) {
+                        onEvicted.accept(thumbnail.image); // rendered for a list that is gone
+                    }
+                    return;
+                }
+                request = inFlight.remove(pageIndex);
+                if (thumbnail != null) {
+                    Thumbnail previous = cache.put(pageIndex, thumbnail);
+                    if (previous != null) {
+                        onEvicted.accept(previous.image);
+                    }
+                }
+            }
+            if (thumbnail != null && request != null) {
+                final Thumbnail ready = thumbnail;
+                final Consumer<Thumbnail> callback = request.onReady;
+                Platform.runLater(() -> callback.accept(ready));
+            }
+        });
+    }
+
+    private static final class Request {
+        volatile BooleanSupplier stillWanted;
+        volatile Consumer<Thumbnail> onReady;
+
+        Request(BooleanSupplier stillWanted, Consumer<Thumbnail> onReady) {
+            this.stillWanted = stillWanted;
+            this.onReady = onReady;
+        }
+    }
+
+    /** Drops queued renders but keeps finished thumbnails, e.g. when the tab goes into the background. */
+    public synchronized void cancelPending() {
+        generation.incrementAndGet();
+        inFlight.clear();
+    }
+
+    /** Forgets every thumbnail, e.g. when another document is opened. */
+    public synchronized void clear() {
+        generation.incrementAndGet();
+        for (Thumbnail thumbnail : cache.values()) {
+            onEvicted.accept(thumbnail.image);
+        }
+        cache.clear();
+        inFlight.clear();
+    }
+}
@@ -0,0 +1,183 @@
+package com.sampath.pdfviewer;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.Pane;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Page layer used at high zoom, where one full-page bitmap would be huge.
+ *
+ * The page is split into a grid of square tiles and only the tiles inside
+ * the viewport (plus a one-tile margin) are rendered and kept. Tiles that
+ * scroll out of range are dropped, so memory follows the viewport size
+ * instead of page size times DPI squared. Tiles can be laid out smaller
+ * than their pixel size, so a HiDPI screen gets one bitmap pixel per device
+ * pixel.
+ */
+public final class TiledPageView extends Pane {
+
+    /** Renders one tile of a page; called on the render thread. */
+    public interface TileSource {
+        Image renderTile(int pageIndex, float dpi, int x, int y, int width, int height) throws Exception;
+
+        /** Called on the FX thread once a tile is off screen for good. */
+        default void recycle(Image tile) {
+        }
+    }
+
+    public static final int TILE_SIZE = 512;
+
+    private final RenderScheduler scheduler;
+    private final TileSource source;
+    private final Map<Integer, ImageView> tiles = new HashMap<>();
+    private final Set<Integer> pending = new HashSet<>();
+    private final AtomicLong generation = new AtomicLong();
+    private boolean active = false;
+    private int pageIndex;
+    private float dpi;
+    private int pageWidth;
+    private int pageHeight;
+    private int columns;
+    private int rows;
+    private double layoutScale = 1; // layout pixels per bitmap pixel
+
+    // Tile range currently wanted; read by queued jobs to skip tiles that scrolled away
+    private volatile int firstColumn, lastColumn, firstRow, lastRow;
+
+    public TiledPageView(RenderScheduler scheduler, TileSource source) {
+        this.scheduler = scheduler;
+        this.source = source;
+        setMouseTransparent(true);
+        setPageSize(0, 0);
+    }
+
+    /**
+     * Starts showing a page in tiles; call {@link #updateViewport} once it is laid out.
+     * Width and height are in bitmap pixels at the given DPI.
+     */
+    public void show(int pageIndex, float dpi, double width, double height, double layoutScale) {
+        clear();
+        this.active = true;
+        this.pageIndex = pageIndex;
+        this.dpi = dpi;
+        this.pageWidth = (int) width;
+        this.pageHeight = (int) height;
+        this.layoutScale = layoutScale;
+        this.columns = (pageWidth + TILE_SIZE - 1) / TILE_SIZE;
+        this.rows = (pageHeight + TILE_SIZE - 1) / TILE_SIZE;
+        setPageSize(pageWidth * layoutScale, pageHeight * layoutScale);
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        scheduler.cancelAll(RenderScheduler.PRIORITY_TILES);
+        for (ImageView view : tiles.values()) {
+            source.recycle(view.getImage());
+        }
+        tiles.clear();
+        pending.clear();
+        getChildren().clear();
+        active = false;
+        setPageSize(0, 0);
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /** Renders the tiles around the visible rectangle (in layout pixels) and drops the rest. */
+    public void updateViewport(double x, double y, double width, double height) {
+        if (!active)
+            return;
+        x /= layoutScale;
+        y /= layoutScale;
+        width /= layoutScale;
+        height /= layoutScale;
+
+        firstColumn = Math.max(0, (int) Math.floor(x / TILE_SIZE) - 1);
+        lastColumn = Math.min(columns - 1, (int) Math.floor((x + width) / TILE_SIZE) + 1);
+        firstRow = Math.max(0, (int) Math.floor(y / TILE_SIZE) - 1);
+        lastRow = Math.min(rows - 1, (int) Math.floor((y + height) / TILE_SIZE) + 1);
+
+        Iterator<Map.Entry<Integer, ImageView>> it = tiles.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, ImageView> entry = it.next();
+            if (!isWanted(entry.getKey())) {
+                getChildren().remove(entry.getValue());
+                source.recycle(entry.getValue().getImage());
+                it.remove();
+            }
+        }
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int key = row * columns + column;
+                if (!tiles.containsKey(key) && pending.add(key)) {
+                    requestTile(key, column, row);
+                }
+            }
+        }
+    }
+
+    private void requestTile(int key, int column, int row) {
+        final long ticket = generation.get();
+        final int page = pageIndex;
+        final float tileDpi = dpi;
+        final int x = column * TILE_SIZE;
+        final int y = row * TILE_SIZE;
+        final int width = Math.min(TILE_SIZE, pageWidth - x);
+        final int height = Math.min(TILE_SIZE, pageHeight - y);
+
+        scheduler.submit(RenderScheduler.PRIORITY_TILES, () -> {
+            Image image = null;
+            if (generation.get() == ticket && isWanted(key)) {
+                try {
+                    image = source.renderTile(page, tileDpi, x, y, width, height);
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                }
+            }
+            final Image tile = image;
+            Platform.runLater(() -> {
+                if (generation.get() != ticket) {
+                    if (tile != null) {
+                        source.recycle(tile);
+                    }
+                    return;
+                }
+                pending.remove(key);
+                if (tile != null && isWanted(key)) {
+                    ImageView view = new ImageView(tile);
+                    view.setLayoutX(x * layoutScale);
+                    view.setLayoutY(y * layoutScale);
+                    view.setFitWidth(width * layoutScale);
+                    view.setFitHeight(height * layoutScale);
+                    tiles.put(key, view);
+                    getChildren().add(view);
+                } else if (tile != null) {
+                    source.recycle(tile);
+                }
+            });
+        });
+    }
+
+    private boolean isWanted(int key) {
+        int row = key / columns;
+        int column = key % columns;
+        return row >= firstRow && row <= lastRow && column >= firstColumn && column <= lastColumn;
+    }
+
+    private void setPageSize(double width, double height) {
+        setMinSize(width, height);
+        setPrefSize(width, height);
+        setMaxSize(width, height);
+    }
+}
@@ -0,0 +1,150 @@
+package com.sampath.pdfviewer;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.printing.Orientation;
+import org.apache.pdfbox.printing.PDFPageable;
+
+import javax.print.PrintService;
+import javax.print.attribute.HashPrintRequestAttributeSet;
+import javax.print.attribute.PrintRequestAttributeSet;
+import javax.print.attribute.standard.Chromaticity;
+import javax.print.attribute.standard.Copies;
+import java.awt.print.PageFormat;
+import java.awt.print.Pageable;
+import java.awt.print.Printable;
+import java.awt.print.PrinterAbortException;
+import java.awt.print.PrinterJob;
+import java.io.File;
+import java.util.List;
+
+/**
+ * Prints pages as vector graphics through java.awt.print and PDFBox's
+ * pageable support, instead of sending a 300 DPI bitmap per page.
+ *
+ * Spool files stay small and text and line art stay sharp at any printer
+ * resolution. The job opens its own copy of the document, so the viewer
+ * keeps rendering while it prints. Grayscale and black & white jobs ask
+ * the printer for monochrome output.
+ */
+public class VectorPrintJob {
+
+    /** Progress callbacks; called from the print thread. */
+    public interface Listener {
+        void pageSent(int done, int total);
+
+        void finished(boolean completed);
+
+        /** The printer or driver could not take the vector job; raster printing may still work. */
+        void failed(Exception ex);
+    }
+
+    private final File file;
+    private final PrintService service;
+    private final List<Integer> pages;
+    private final Orientation orientation;
+    private final int copies;
+    private final ColorMode colorMode;
+    private volatile PrinterJob job;
+    private volatile boolean cancelled = false;
+
+    public VectorPrintJob(File file, PrintService service, List<Integer> pages, Orientation orientation, int copies,
+            ColorMode colorMode) {
+        this.file = file;
+        this.service = service;
+        this.pages = pages;
+        this.orientation = orientation;
+        this.copies = copies;
+        this.colorMode = colorMode;
+    }
+
+    /** The java.awt print service with the given name, or null. */
+    public static PrintService findService(String printerName) {
+        for (PrintService service : PrinterJob.lookupPrintServices()) {
+            if (service.getName().equals(printerName)) {
+                return service;
+            }
+        }
+        return null;
+    }
+
+    public void cancel() {
+        cancelled = true;
+        PrinterJob running = job;
+        if (running != null) {
+            running.cancel();
+        }
+    }
+
+    public void start(Listener listener) {
+        Thread thread = new Thread(() -> print(listener), "cleanview-print-vector");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void print(Listener listener) {
+        try (PDDocument doc = DocumentLoader.load(file)) {
+            PrinterJob printerJob = PrinterJob.getPrinterJob();
+            printerJob.setPrintService(service);
+            printerJob.setJobName(file.getName());
+            printerJob.setCopies(copies);
+            printerJob.setPageable(new Selection(new PDFPageable(doc, orientation), listener));
+            job = printerJob;
+            if (cancelled) {
+                listener.finished(false);
+                return;
+            }
+            PrintRequestAttributeSet attributes = new HashPrintRequestAttributeSet();
+            attributes.add(new Copies(copies));
+            if (colorMode != ColorMode.COLOR) {
+                attributes.add(Chromaticity.MONOCHROME);
+            }
+            printerJob.print(attributes);
+            listener.finished(!cancelled);
+        } catch (PrinterAbortException ex) {
+            listener.finished(false);
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            if (cancelled) {
+                listener.finished(false);
+            } else {
+                listener.failed(ex);
+            }
+        }
+    }
+
+    /** The chosen pages of the document, in the order they were asked for. */
+    private final class Selection implements Pageable {
+        private final PDFPageable document;
+        private final Listener listener;
+        private int sent = 0;
+
+        Selection(PDFPageable document, Listener listener) {
+            this.document = document;
+            this.listener = listener;
+        }
+
+        @Override
+        public int getNumberOfPages() {
+            return pages.size();
+        }
+
+        @Override
+        public PageFormat getPageFormat(int index) {
+            return document.getPageFormat(pages.get(index));
+        }
+
+        @Override
+        public Printable getPrintable(int index) {
+            Printable page = document.getPrintable(pages.get(index));
+            return (graphics, format, ignored) -> {
+                int result = page.print(graphics, format, pages.get(index));
+                // Drivers may call a page more than once (banding), count each page once
+                if (index + 1 > sent) {
+                    sent = index + 1;
+                    listener.pageSent(sent, pages.size());
+                }
+                return result;
+            };
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.sampath.pdfviewer;
+
+import junit.framework.TestCase;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Derivation of the disk cache key from a PDF's content, and how entries
+ * are written and evicted.
+ */
+public class DiskPageCacheTest extends TestCase {
+
+    private static final long LARGE = 64L * 1024 * 1024 + 1; // just past the full-hash limit
+
+    private File folder;
+
+    @Override
+    protected void setUp() throws Exception {
+        folder = Files.createTempDirectory("cleanview-keys").toFile();
+    }
+
+    @Override
+    protected void tearDown() {
+        delete(folder);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private File write(String name, byte[] content) throws Exception {
+        File file = new File(folder, name);
+        Files.write(file.toPath(), content);
+        return file;
+    }
+
+    // A sparse file of the given length, with one byte set
+    private File large(String name, long length, long offset, int value) throws Exception {
+        File file = new File(folder, name);
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.setLength(length);
+            out.seek(offset);
+            out.write(value);
+        }
+        return file;
+    }
+
+    public void testSmallFileKeyIsTheSha256OfItsContent() throws Exception {
+        byte[] content = "%PDF-1.4 small".getBytes("US-ASCII");
+        StringBuilder hex = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-256").digest(content)) {
+            hex.append(String.format("%02x", b));
+        }
+        assertEquals(hex.toString(), DiskPageCache.fingerprint(write("a.pdf", content)));
+    }
+
+    public void testKeyFollowsContentNotName() throws Exception {
+        byte[] content = "%PDF-1.4 same".getBytes("US-ASCII");
+        String original = DiskPageCache.fingerprint(write("original.pdf", content));
+        assertEquals(original, DiskPageCache.fingerprint(write("renamed copy.pdf", content)));
+
+        content[content.length - 1] = 'E'; // an edited file
+        assertFalse(original.equals(DiskPageCache.fingerprint(write("edited.pdf", content))));
+    }
+
+    public void testLargeFilesAreKeyedByLengthAndSamples() throws Exception {
+        String key = DiskPageCache.fingerprint(large("a.pdf", LARGE, 0, 1));
+        assertEquals(key, DiskPageCache.fingerprint(large("b.pdf", LARGE, 0, 1)));
+
+        // head, middle and tail are sampled; so is the length
+        assertFalse(key.equals(DiskPageCache.fingerprint(large("head.pdf", LARGE, 0, 2))));
+        assertFalse(key.equals(DiskPageCache.fingerprint(large("middle.pdf", LARGE, LARGE / 2, 2))));
+        assertFalse(key.equals(DiskPageCache.fingerprint(large("tail.pdf", LARGE, LARGE - 1, 2))));
+        assertFalse(key.equals(DiskPageCache.fingerprint(large("longer.pdf", LARGE + 1, 0, 1))));
+    }
+
+    public void testNoKeyOrNoBudgetMeansNoCache() {
+        DiskPageCache cache = new DiskPageCache(folder.toPath(), 1024 * 1024);
+        assertTrue(cache.isEnabled());
+        assertNull(cache.read(null, "preview-0-72"));
+
+        DiskPageCache disabled = new DiskPageCache(folder.toPath(), 0);
+        assertFalse(disabled.isEnabled());
+        assertNull(disabled.read("abc", "preview-0-72"));
+    }
+
+    // Random pixels, so the PNG does not compress away
+    private static BufferedImage noise() {
+        BufferedImage image = new BufferedImage(60, 60, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(7);
+        for (int y = 0; y < 60; y++) {
+            for (int x = 0; x < 60; x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        return image;
+    }
+
+    private static void waitUntil(String what, BooleanSupplier condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("timed out waiting until " + what, System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    public void testWrittenImageIsReadBackWithoutLeavingTemporaryFiles() throws Exception {
+        DiskPageCache cache = new DiskPageCache(folder.toPath(), 1024 * 1024);
+        cache.write("doc", "thumb-0-120", noise());
+        waitUntil("the image is stored", () -> cache.read("doc", "thumb-0-120") != null);
+
+        BufferedImage read = cache.read("doc", "thumb-0-120");
+        assertEquals(noise().getRGB(30, 30), read.getRGB(30, 30));
+        assertEquals(1, new File(folder, "doc").list().length);
+    }
+
+    public void testLeastRecentlyUsedFilesAreEvictedPastTheBudget() throws Exception {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(noise(), "png", png);
+        int size = png.size();
+
+        // What an earlier session left: two entries and a write that never finished
+        Path doc = folder.toPath().resolve("doc");
+        Files.createDirectories(doc);
+        Path older = Files.write(doc.resolve("older.png"), new byte[size]);
+        Path newer = Files.write(doc.resolve("newer.png"), new byte[size]);
+        Path unfinished = Files.write(doc.resolve("newest123.tmp"), new byte[size]);
+        Files.setLastModifiedTime(older, FileTime.fromMillis(1_000_000));
+        Files.setLastModifiedTime(newer, FileTime.fromMillis(2_000_000));
+
+        DiskPageCache cache = new DiskPageCache(folder.toPath(), size * 5 / 2);
+        cache.write("doc", "newest", noise()); // three entries no longer fit
+        waitUntil("the oldest entry is evicted", () -> !Files.exists(older));
+
+        assertTrue(Files.exists(newer));
+        assertTrue(Files.exists(doc.resolve("newest.png")));
+        assertFalse(Files.exists(unfinished));
+    }
+}
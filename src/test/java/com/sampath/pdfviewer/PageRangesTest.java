@@ -0,0 +1,51 @@
+package com.sampath.pdfviewer;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Parsing of the "1-3,5" page ranges typed in the dialogs and on the
+ * command line.
+ */
+public class PageRangesTest extends TestCase {
+
+    public void testAllListsEveryPage() {
+        assertEquals(Arrays.asList(0, 1, 2), PageRanges.all(3));
+        assertEquals(Collections.emptyList(), PageRanges.all(0));
+    }
+
+    public void testRangesAndSinglePagesBecomeZeroBasedIndices() {
+        assertEquals(Arrays.asList(0, 1, 2, 4), PageRanges.parse("1-3,5", 10));
+        assertEquals(Arrays.asList(1, 2, 6), PageRanges.parse(" 2 - 3 , 7 ", 10));
+        assertEquals(Arrays.asList(3), PageRanges.parse("4-4", 10));
+    }
+
+    public void testPagesOutsideTheDocumentAreClamped() {
+        assertEquals(Arrays.asList(3, 4), PageRanges.parse("4-99", 5));
+        assertEquals(Arrays.asList(4), PageRanges.parse("12", 5));
+        assertEquals(Arrays.asList(0), PageRanges.parse("0", 5));
+        assertEquals(Collections.emptyList(), PageRanges.parse("7-9", 5));
+    }
+
+    public void testMalformedInputIsRejected() {
+        for (String input : new String[] { "", "abc", "1-", "-3", "1-2-3", "1,,2", "3-1" }) {
+            try {
+                PageRanges.parse(input, 10);
+                fail("accepted \"" + input + "\"");
+            } catch (IllegalArgumentException expected) {
+                assertNotNull(expected.getMessage());
+            }
+        }
+    }
+
+    public void testDocumentWithoutPagesIsRejected() {
+        try {
+            PageRanges.parse("1", 0);
+            fail("accepted a range in an empty document");
+        } catch (IllegalArgumentException expected) {
+            assertEquals("The document has no pages", expected.getMessage());
+        }
+    }
+}
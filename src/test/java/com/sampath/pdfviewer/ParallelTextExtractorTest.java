@@ -0,0 +1,87 @@
+package com.sampath.pdfviewer;
+
+import junit.framework.TestCase;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Text extraction on pages turned by /Rotate, which used to come out with
+ * line breaks in the middle of words.
+ */
+public class ParallelTextExtractorTest extends TestCase {
+
+    private static final int[] ROTATIONS = { 0, 90, 180, 270 };
+
+    private File pdf;
+
+    @Override
+    protected void setUp() throws Exception {
+        pdf = File.createTempFile("rotated", ".pdf");
+        try (PDDocument doc = new PDDocument()) {
+            for (int rotation : ROTATIONS) {
+                PDPage page = new PDPage(PDRectangle.LETTER);
+                page.setRotation(rotation);
+                doc.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(doc, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 12);
+                    content.newLineAtOffset(100, 700);
+                    content.showText("Hello World page " + (rotation / 90 + 1) + " quick brown fox");
+                    content.newLineAtOffset(0, -14);
+                    content.showText("jumps over the lazy dog");
+                    content.endText();
+                }
+            }
+            doc.save(pdf);
+        }
+    }
+
+    @Override
+    protected void tearDown() {
+        pdf.delete();
+    }
+
+    public void testRotatedPagesKeepWordsWhole() throws Exception {
+        List<PageText> pages = extract(true);
+        assertEquals(ROTATIONS.length, pages.size());
+        for (PageText page : pages) {
+            String text = page.getText().trim();
+            assertEquals("page " + (page.getPageIndex() + 1),
+                    "Hello World page " + (page.getPageIndex() + 1) + " quick brown fox\njumps over the lazy dog", text);
+        }
+    }
+
+    public void testIndexFindsPhraseOnRotatedPage() throws Exception {
+        TextIndex index = new TextIndex(ROTATIONS.length);
+        for (PageText page : extract(false)) {
+            index.addPage(page.getPageIndex(), page.getText());
+        }
+        int[] pages = index.pagesContaining(SearchQuery.parse("\"brown fox\""));
+        assertEquals(ROTATIONS.length, pages.length);
+    }
+
+    public void testTextOnlyPagesMatchGlyphPages() throws Exception {
+        List<PageText> withGlyphs = extract(true);
+        List<PageText> textOnly = extract(false);
+        for (int i = 0; i < withGlyphs.size(); i++) {
+            assertEquals(withGlyphs.get(i).getText(), textOnly.get(i).getText());
+            assertTrue(withGlyphs.get(i).getGlyphCount() > 0);
+            assertEquals(0, textOnly.get(i).getGlyphCount());
+        }
+    }
+
+    private List<PageText> extract(boolean glyphs) throws Exception {
+        List<PageText> pages = new ArrayList<>();
+        ParallelTextExtractor extractor = new ParallelTextExtractor(pdf, 2);
+        extractor.setCollectGlyphs(glyphs);
+        extractor.extract(0, ROTATIONS.length - 1, pages::add);
+        return pages;
+    }
+}
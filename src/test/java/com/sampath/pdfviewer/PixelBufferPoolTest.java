@@ -0,0 +1,127 @@
+package com.sampath.pdfviewer;
+
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+import junit.framework.TestCase;
+
+import java.awt.Color;
+
+/**
+ * Reference counting and reuse of pooled pixel arrays. Reuse is observed
+ * through the pool's summary line.
+ */
+public class PixelBufferPoolTest extends TestCase {
+
+    static {
+        System.setProperty("prism.order", "sw"); // images need no GPU pipeline
+    }
+
+    private final PixelBufferPool pool = new PixelBufferPool(1024 * 1024);
+
+    private PixelBufferPool.PooledImage blank() throws Exception {
+        return pool.paint(10, 10, ColorMode.COLOR, g -> {
+        });
+    }
+
+    private void assertCounts(int reused, int allocated) {
+        String expected = "Pixels: " + reused + " reused, " + allocated + " allocated";
+        assertTrue(pool.summary(), pool.summary().startsWith(expected));
+    }
+
+    public void testLastReleaseHandsPixelsBackForReuse() throws Exception {
+        pool.release(blank());
+        blank();
+        assertCounts(1, 1);
+    }
+
+    public void testRetainedImageKeepsItsPixels() throws Exception {
+        PixelBufferPool.PooledImage image = blank();
+        assertTrue(pool.retain(image));
+        pool.release(image);
+        blank();
+        assertCounts(0, 2);
+
+        pool.release(image); // the last reference
+        blank();
+        assertCounts(1, 2);
+    }
+
+    public void testReleasedImageCannotBeRetainedOrReleasedAgain() throws Exception {
+        PixelBufferPool.PooledImage image = blank();
+        pool.release(image);
+        assertFalse(pool.retain(image));
+        pool.release(image); // must not put the same array in the pool twice
+        blank();
+        blank();
+        assertCounts(1, 2);
+    }
+
+    public void testOnlyArraysOfTheSameSizeAreReused() throws Exception {
+        pool.release(blank());
+        pool.paint(20, 10, ColorMode.COLOR, g -> {
+        });
+        assertCounts(0, 2);
+    }
+
+    public void testPoolKeepsNothingBeyondItsBudget() throws Exception {
+        PixelBufferPool small = new PixelBufferPool(0);
+        small.release(small.paint(10, 10, ColorMode.COLOR, g -> {
+        }));
+        small.paint(10, 10, ColorMode.COLOR, g -> {
+        });
+        assertTrue(small.summary(), small.summary().startsWith("Pixels: 0 reused, 2 allocated"));
+    }
+
+    public void testReusedPixelsStartWhite() throws Exception {
+        PixelBufferPool.PooledImage red = pool.paint(10, 10, ColorMode.COLOR, g -> {
+            g.setColor(Color.RED);
+            g.fillRect(0, 0, 10, 10);
+        });
+        assertEquals(0xffff0000, red.getAwtImage().getRGB(5, 5));
+        pool.release(red);
+        assertEquals(0xffffffff, blank().getAwtImage().getRGB(5, 5));
+        assertCounts(1, 1);
+    }
+
+    public void testGrayscaleAndBlackAndWhiteReduceInPlace() throws Exception {
+        Color darkRed = new Color(120, 0, 0);
+        PixelBufferPool.PooledImage gray = pool.paint(2, 1, ColorMode.GRAYSCALE, g -> {
+            g.setColor(darkRed);
+            g.fillRect(0, 0, 1, 1);
+        });
+        int pixel = gray.getAwtImage().getRGB(0, 0);
+        int luma = pixel & 0xff;
+        assertEquals(luma * 0x010101, pixel & 0xffffff);
+        assertTrue(luma > 0 && luma < 128);
+        assertEquals(0xffffffff, gray.getAwtImage().getRGB(1, 0));
+
+        PixelBufferPool.PooledImage bw = pool.paint(2, 1, ColorMode.MONOCHROME, g -> {
+            g.setColor(darkRed);
+            g.fillRect(0, 0, 1, 1);
+        });
+        assertEquals(0xff000000, bw.getAwtImage().getRGB(0, 0));
+        assertEquals(0xffffffff, bw.getAwtImage().getRGB(1, 0));
+    }
+
+    public void testViewHoldsAReferenceWhileShowingAnImage() throws Exception {
+        ImageView view = new ImageView();
+        pool.track(view);
+        PixelBufferPool.PooledImage image = blank();
+        view.setImage(image);
+        pool.release(image); // the creator's reference
+        blank();
+        assertCounts(0, 2);
+
+        view.setImage(null);
+        blank();
+        assertCounts(1, 2);
+    }
+
+    public void testImagesFromElsewhereAreLeftAlone() throws Exception {
+        WritableImage foreign = new WritableImage(10, 10);
+        assertTrue(pool.retain(foreign));
+        pool.release(foreign);
+        blank();
+        assertCounts(0, 1);
+    }
+}
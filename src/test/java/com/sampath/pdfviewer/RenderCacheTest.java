@@ -0,0 +1,133 @@
+package com.sampath.pdfviewer;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Byte-budget LRU eviction of the page cache. Every page here is 10x10
+ * pixels, i.e. 400 bytes.
+ */
+public class RenderCacheTest extends TestCase {
+
+    static {
+        System.setProperty("prism.order", "sw"); // images need no GPU pipeline
+    }
+
+    private static final long PAGE_BYTES = 10 * 10 * 4;
+
+    private final List<Image> evicted = new ArrayList<>();
+
+    private RenderCache cacheOf(int pages) {
+        RenderCache cache = new RenderCache(pages * PAGE_BYTES);
+        cache.setOnEvicted(evicted::add);
+        return cache;
+    }
+
+    private static RenderCache.Key key(int documentId, int pageIndex) {
+        return new RenderCache.Key(documentId, pageIndex, 72, ColorMode.COLOR);
+    }
+
+    private static Image page() {
+        return new WritableImage(10, 10);
+    }
+
+    public void testEvictsLeastRecentlyUsedPageWhenFull() {
+        RenderCache cache = cacheOf(3);
+        Image first = page();
+        Image second = page();
+        cache.put(key(1, 0), first);
+        cache.put(key(1, 1), second);
+        cache.put(key(1, 2), page());
+        assertSame(first, cache.get(key(1, 0))); // now the most recently used
+
+        cache.put(key(1, 3), page());
+        assertEquals(Arrays.asList(second), evicted);
+        assertNull(cache.get(key(1, 1)));
+        assertSame(first, cache.get(key(1, 0)));
+    }
+
+    public void testLargePageEvictsAsManyPagesAsItNeeds() {
+        RenderCache cache = cacheOf(4);
+        for (int i = 0; i < 4; i++) {
+            cache.put(key(1, i), page());
+        }
+        cache.put(key(1, 9), new WritableImage(20, 10)); // two pages' worth
+        assertEquals(2, evicted.size());
+        assertNull(cache.get(key(1, 0)));
+        assertNull(cache.get(key(1, 1)));
+        assertNotNull(cache.get(key(1, 2)));
+    }
+
+    public void testPageLargerThanBudgetIsHandedBackAtOnce() {
+        RenderCache cache = cacheOf(2);
+        Image kept = page();
+        cache.put(key(1, 0), kept);
+        Image huge = new WritableImage(100, 100);
+        cache.put(key(1, 1), huge);
+        assertEquals(Arrays.asList(huge), evicted);
+        assertNull(cache.get(key(1, 1)));
+        assertSame(kept, cache.get(key(1, 0)));
+    }
+
+    public void testReplacedPageGoesToTheListenerEvenIfItIsTheSameBitmap() {
+        RenderCache cache = cacheOf(2);
+        Image image = page();
+        cache.put(key(1, 0), image);
+        cache.put(key(1, 0), image);
+        assertEquals(Arrays.asList(image), evicted);
+        assertSame(image, cache.get(key(1, 0)));
+    }
+
+    public void testBackgroundDocumentsAreEvictedFirst() {
+        RenderCache cache = cacheOf(3);
+        cache.setActiveDocument(1);
+        Image onScreen = page();
+        Image background = page();
+        cache.put(key(1, 0), onScreen); // least recently used, but on screen
+        cache.put(key(2, 0), background);
+        cache.put(key(1, 1), page());
+
+        cache.put(key(1, 2), page());
+        assertEquals(Arrays.asList(background), evicted);
+        assertSame(onScreen, cache.get(key(1, 0)));
+    }
+
+    public void testInvalidateDropsOnlyThatDocument() {
+        RenderCache cache = cacheOf(4);
+        cache.put(key(1, 0), page());
+        cache.put(key(1, 1), page());
+        Image other = page();
+        cache.put(key(2, 0), other);
+
+        cache.invalidateDocument(1);
+        assertEquals(2, evicted.size());
+        assertFalse(cache.contains(key(1, 0)));
+        assertFalse(cache.contains(key(1, 1)));
+        assertSame(other, cache.get(key(2, 0)));
+
+        // the freed bytes are available again
+        cache.put(key(2, 1), page());
+        cache.put(key(2, 2), page());
+        cache.put(key(2, 3), page());
+        assertEquals(2, evicted.size());
+    }
+
+    public void testBestBelowPicksTheSharpestLowerResolution() {
+        RenderCache cache = cacheOf(4);
+        cache.put(new RenderCache.Key(1, 0, 72, ColorMode.COLOR), page());
+        cache.put(new RenderCache.Key(1, 0, 150, ColorMode.COLOR), page());
+        cache.put(new RenderCache.Key(1, 0, 300, ColorMode.COLOR), page());
+        cache.put(new RenderCache.Key(1, 0, 200, ColorMode.GRAYSCALE), page());
+
+        Map.Entry<RenderCache.Key, Image> best = cache.bestBelow(1, 0, 250, ColorMode.COLOR);
+        assertEquals(150f, best.getKey().dpi);
+        assertNull(cache.bestBelow(1, 0, 72, ColorMode.COLOR));
+        assertNull(cache.bestBelow(1, 1, 600, ColorMode.COLOR));
+    }
+}
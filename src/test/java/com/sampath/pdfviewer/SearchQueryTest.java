@@ -0,0 +1,75 @@
+package com.sampath.pdfviewer;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Query parsing and the Aho-Corasick scan that finds every term in one pass.
+ */
+public class SearchQueryTest extends TestCase {
+
+    // term:start-end for every match, in the order they are reported
+    private static List<String> matches(String query, String text) {
+        List<String> found = new ArrayList<>();
+        SearchQuery.parse(query).scan(text, (term, start, end) -> found.add(term + ":" + start + "-" + end));
+        return found;
+    }
+
+    public void testWordsAndPhrasesBecomeLowerCaseTerms() {
+        SearchQuery query = SearchQuery.parse("  Quick \"Brown   FOX\" quick jumps");
+        assertEquals(3, query.getTermCount()); // the repeated word is one term
+        assertEquals("quick", query.getTerm(0));
+        assertEquals("brown fox", query.getTerm(1));
+        assertEquals("jumps", query.getTerm(2));
+        assertEquals("  Quick \"Brown   FOX\" quick jumps", query.getText());
+    }
+
+    public void testUnclosedQuoteRunsToTheEnd() {
+        SearchQuery query = SearchQuery.parse("dog \"lazy dog");
+        assertEquals(2, query.getTermCount());
+        assertEquals("lazy dog", query.getTerm(1));
+    }
+
+    public void testBlankQueryMatchesNothing() {
+        SearchQuery query = SearchQuery.parse("   \"\"  ");
+        assertTrue(query.isEmpty());
+        assertEquals(-1, query.find("anything"));
+        assertTrue(matches("", "anything").isEmpty());
+    }
+
+    public void testOverlappingTermsAreAllReported() {
+        assertEquals(Arrays.asList("1:1-4", "0:2-4", "2:2-6"), matches("he she hers", "ushers"));
+        assertEquals(Arrays.asList("0:0-2", "0:1-3", "0:2-4"), matches("aa", "aaaa"));
+    }
+
+    public void testMatchingIgnoresCase() {
+        assertEquals(Arrays.asList("0:4-9"), matches("Hello", "say HELLO"));
+    }
+
+    public void testPhraseMatchesAcrossLineBreaks() {
+        // offsets point into the original text, whitespace run included
+        assertEquals(Arrays.asList("0:6-17"), matches("\"brown fox\"", "quick brown\n  fox"));
+        assertTrue(matches("\"brown fox\"", "brownfox").isEmpty());
+    }
+
+    public void testFindReturnsTheFirstMatchOfAnyTerm() {
+        SearchQuery query = SearchQuery.parse("fox dog");
+        assertEquals(4, query.find("the dog and the fox"));
+        assertEquals(-1, query.find("the cat"));
+    }
+
+    public void testMatchingDoesNotDependOnTheDefaultLocale() {
+        Locale saved = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            assertEquals(Arrays.asList("0:0-5"), matches("TITLE", "title"));
+            assertEquals("title", SearchQuery.normalize("TITLE"));
+        } finally {
+            Locale.setDefault(saved);
+        }
+    }
+}
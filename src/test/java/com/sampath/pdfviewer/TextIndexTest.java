@@ -0,0 +1,135 @@
+package com.sampath.pdfviewer;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Page lookups through the full-text index, which must agree with scanning
+ * the page text directly.
+ */
+public class TextIndexTest extends TestCase {
+
+    private TextIndex index;
+
+    @Override
+    protected void setUp() {
+        index = new TextIndex(4);
+        index.addPage(0, "The quick brown fox");
+        index.addPage(1, "jumps over the lazy dog");
+        index.addPage(2, "A brown\ndog and a quick fox");
+    }
+
+    private int[] pages(String query) {
+        return index.pagesContaining(SearchQuery.parse(query));
+    }
+
+    public void testTracksIndexedPages() {
+        assertEquals(3, index.getIndexedPages());
+        assertFalse(index.isComplete());
+        assertTrue(index.isIndexed(2));
+        assertFalse(index.isIndexed(3));
+        assertNull(index.getPageText(3));
+
+        index.addPage(3, "last page");
+        index.addPage(3, "added twice"); // ignored
+        assertTrue(index.isComplete());
+        assertEquals("last page", index.getPageText(3));
+    }
+
+    public void testWordsMatchInsideTokensAndIgnoreCase() {
+        assertArrayEquals(new int[] { 0, 2 }, pages("QUICK"));
+        assertArrayEquals(new int[] { 0, 2 }, pages("row")); // "brown"
+        assertArrayEquals(new int[0], pages("cat"));
+    }
+
+    public void testAnyTermSelectsAPage() {
+        assertArrayEquals(new int[] { 0, 1, 2 }, pages("lazy fox"));
+    }
+
+    public void testPhraseNeedsTheWordsTogether() {
+        assertArrayEquals(new int[] { 0 }, pages("\"brown fox\""));
+        assertArrayEquals(new int[] { 2 }, pages("\"brown dog\"")); // across the line break
+        assertArrayEquals(new int[0], pages("\"fox brown\""));
+        assertArrayEquals(new int[] { 0 }, pages("\"the quick brown fox\""));
+    }
+
+    public void testPhraseMayStartAndEndInsideTokens() {
+        assertArrayEquals(new int[] { 2 }, pages("\"ck fo\"")); // "quick fox"
+        assertArrayEquals(new int[] { 0 }, pages("\"own fo\""));
+        assertArrayEquals(new int[0], pages("\"quic brown\"")); // "quic" must end its token
+        assertArrayEquals(new int[0], pages("\"the quick rown\"")); // "rown" must start its token
+    }
+
+    public void testAgreesWithScanningThePages() {
+        String[] texts = { "Alpha beta-gamma delta", "beta gamma\n\tdelta alpha", "gammadelta alphabet", "" };
+        TextIndex full = new TextIndex(texts.length);
+        for (int i = 0; i < texts.length; i++) {
+            full.addPage(i, texts[i]);
+        }
+        for (String q : new String[] { "a", "al", "pha", "alphab", "\"beta gamma\"", "\"a gamma delta\"",
+                "\"ta g\"", "\"gamma delta\" bet", "-gam", "\"delta alpha\"", "zeta" }) {
+            SearchQuery query = SearchQuery.parse(q);
+            StringBuilder scanned = new StringBuilder();
+            for (int i = 0; i < texts.length; i++) {
+                if (query.find(texts[i]) >= 0) {
+                    scanned.append(scanned.length() > 0 ? ", " : "").append(i);
+                }
+            }
+            assertEquals(q, "[" + scanned + "]", Arrays.toString(full.pagesContaining(query)));
+        }
+    }
+
+    public void testShortWordsAndLongerOnesMatchInsideTokens() {
+        assertArrayEquals(new int[] { 0, 1, 2 }, pages("o"));
+        assertArrayEquals(new int[] { 0, 2 }, pages("ow"));
+        assertArrayEquals(new int[] { 0, 2 }, pages("own"));
+        assertArrayEquals(new int[] { 1, 2 }, pages("do")); // not a longer form of "own"
+    }
+
+    public void testPagesAddedLaterAreFound() {
+        assertArrayEquals(new int[] { 0, 2 }, pages("fox"));
+        index.addPage(3, "Fox again");
+        assertArrayEquals(new int[] { 0, 2, 3 }, pages("fox"));
+    }
+
+    public void testMayContainOnlyRulesOutIndexedPages() {
+        SearchQuery query = SearchQuery.parse("lazy");
+        assertFalse(index.mayContain(0, query));
+        assertTrue(index.mayContain(1, query));
+        assertTrue(index.mayContain(3, query)); // not indexed yet
+    }
+
+    public void testWaitingForAPageEndsWhenItArrivesOrIndexingStops() throws Exception {
+        assertEquals("The quick brown fox", index.awaitPageText(0, 0));
+        assertNull(index.awaitPageText(3, 10)); // timed out
+        assertFalse(index.isFinished());
+
+        Thread indexer = new Thread(() -> index.addPage(3, "last page"));
+        indexer.start();
+        assertEquals("last page", index.awaitPageText(3, 10_000));
+        indexer.join();
+
+        TextIndex cancelled = new TextIndex(2);
+        cancelled.finish();
+        assertTrue(cancelled.isFinished());
+        assertNull(cancelled.awaitPageText(1, 10_000)); // returns at once
+    }
+
+    public void testTurkishDefaultLocaleStillMatches() {
+        Locale saved = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            TextIndex turkish = new TextIndex(1);
+            turkish.addPage(0, "TITLE PAGE");
+            assertArrayEquals(new int[] { 0 }, turkish.pagesContaining(SearchQuery.parse("title")));
+        } finally {
+            Locale.setDefault(saved);
+        }
+    }
+
+    private static void assertArrayEquals(int[] expected, int[] actual) {
+        assertEquals(Arrays.toString(expected), Arrays.toString(actual));
+    }
+}